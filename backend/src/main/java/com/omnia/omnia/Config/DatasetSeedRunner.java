@@ -0,0 +1,55 @@
+package com.omnia.omnia.Config;
+
+import com.omnia.omnia.Service.DatasetSeeder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Génère le jeu de données synthétique au démarrage sur une base vide (app.seed.families > 0).
+ * Exécuté avant ApplicationReadyEvent : les backfills (agrégats, journal, planification, index) s'appliquent ensuite
+ * aux données générées comme à une base existante.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("${app.seed.families:0} > 0")
+public class DatasetSeedRunner implements ApplicationRunner {
+
+    private final DatasetSeeder datasetSeeder;
+
+    @Value("${app.seed.families}")
+    private int families;
+
+    @Value("${app.seed.visits-per-family:6}")
+    private int visitsPerFamily;
+
+    @Value("${app.seed.users:50}")
+    private int users;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    // Date de référence fixe pour un jeu identique d'un jour à l'autre (vide = aujourd'hui)
+    @Value("${app.seed.anchor-date:}")
+    private String anchorDate;
+
+    @Value("${app.seed.password:omnia-seed}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!datasetSeeder.isEmpty()) {
+            log.info("Base non vide : génération du jeu de données ignorée");
+            return;
+        }
+        datasetSeeder.seed(families, visitsPerFamily, users, randomSeed,
+                anchorDate.isBlank() ? null : LocalDate.parse(anchorDate), password);
+    }
+}
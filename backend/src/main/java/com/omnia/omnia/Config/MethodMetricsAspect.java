@@ -0,0 +1,64 @@
+package com.omnia.omnia.Config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers Micrometer sur les méthodes publiques des contrôleurs (omnia.controller) et des *Service (omnia.service),
+ * étiquetés par classe, méthode et exception. Les appels internes à un même bean ne passent pas par le proxy.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MethodMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    // Timers des appels sans exception, résolus une fois par méthode
+    private final Map<Method, Timer> controllerTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Timer> serviceTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.omnia.omnia.Controller.*Controller.*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "omnia.controller", controllerTimers);
+    }
+
+    @Around("execution(public * com.omnia.omnia..*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "omnia.service", serviceTimers);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String name, Map<Method, Timer> timers) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            timers.computeIfAbsent(method, m -> timer(name, m, "none"))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(name, ((MethodSignature) joinPoint.getSignature()).getMethod(), e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, Method method, String exception) {
+        return Timer.builder(name)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.omnia.omnia.Config;
+
+import com.omnia.omnia.Service.CustomUserDetailsService;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métriques exposées sur /actuator/prometheus, en plus de celles fournies par Spring Boot
+ * (http.server.requests, spring.data.repository.invocations, hikaricp.*, hibernate.*) :
+ * compteur et temps des requêtes SQL, taux de succès des caches d'authentification.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementMonitorCustomizer(SqlStatementMonitor sqlStatementMonitor) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementMonitor);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementMonitor.ExecutionListener.class.getName());
+        };
+    }
+
+    // cache.gets{result=hit|miss}, cache.evictions, cache.size pour les tokens vérifiés et les utilisateurs
+    @Bean
+    public MeterBinder authenticationCacheMetrics(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, jwtService.getVerifiedTokenCache(), "jwt.verified-tokens");
+            CaffeineCacheMetrics.monitor(registry, userDetailsService.getUserCache(), "security.users");
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.omnia.omnia.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tâches planifiées (scan quotidien des aides arrivant à expiration, publication du journal des modifications),
+ * exécutées sur le planificateur de Spring Boot : threads virtuels quand spring.threads.virtual.enabled=true (Java 21+)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
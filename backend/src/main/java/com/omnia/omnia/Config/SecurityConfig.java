@@ -1,6 +1,8 @@
 package com.omnia.omnia.Config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,11 +19,13 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -31,6 +35,10 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
 
+    // Adresses (ou plages CIDR) du collecteur Prometheus, autorisé sans token sur /actuator/prometheus
+    @Value("${app.metrics.scrape-addresses:127.0.0.1,::1}")
+    private List<String> scrapeAddresses;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -41,6 +49,9 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/*", "/v3/api-docs/*").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(this::isMetricsScrape).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("Admin")
 
                         // Protected endpoints avec rôles
                         .requestMatchers("/api/admin/**").hasRole("Admin")
@@ -50,7 +61,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/aid-types/**").hasRole("Admin")
                         .requestMatchers("/api/families/**").hasAnyRole("Admin", "Coordinator", "Volunteer")
                         .requestMatchers("/api/visits/**").hasAnyRole("Admin", "Coordinator", "Volunteer")
+                        .requestMatchers("/api/sync/**").hasAnyRole("Admin", "Coordinator", "Volunteer")
                         .requestMatchers("/api/dashboard/**").hasAnyRole("Admin", "Coordinator")
+                        .requestMatchers("/api/aid/**").hasAnyRole("Admin", "Coordinator")
 
                         // Toutes les autres requêtes nécessitent authentification
                         .anyRequest().authenticated()
@@ -62,6 +75,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private boolean isMetricsScrape(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + "/actuator/prometheus")
+                && scrapeAddresses.stream().anyMatch(address -> new IpAddressMatcher(address.trim()).matches(request));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,66 @@
+package com.omnia.omnia.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Contrôle du budget SQL de chaque endpoint : le budget du contrôleur est posé sur le compteur du thread avant
+ * l'appel, le total est comparé en fin de requête. Le compte inclut les requêtes faites avant le contrôleur
+ * (chargement de l'utilisateur authentifié), le compteur étant remis à zéro par SqlStatementMetricsFilter.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    private static final String BUDGET_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".budget";
+
+    private final SqlStatementMonitor sqlStatementMonitor;
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (properties.getMode() == SqlBudgetProperties.Mode.OFF || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        int budget = properties.budgetFor(handlerMethod);
+        request.setAttribute(BUDGET_ATTRIBUTE, budget);
+        sqlStatementMonitor.budget(name(handlerMethod), budget,
+                properties.getMode() == SqlBudgetProperties.Mode.STRICT);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (!(request.getAttribute(BUDGET_ATTRIBUTE) instanceof Integer budget)) {
+            return;
+        }
+        sqlStatementMonitor.clearBudget();
+        int count = sqlStatementMonitor.count();
+        if (count <= budget) {
+            return;
+        }
+        String name = name((HandlerMethod) handler);
+        Counter.builder("omnia.sql.budget.exceeded")
+                .description("Requêtes HTTP ayant dépassé leur budget de requêtes SQL")
+                .tag("handler", name)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Budget SQL dépassé : {} {} ({}) a émis {} requêtes pour un budget de {}",
+                request.getMethod(), request.getRequestURI(), name, count, budget);
+    }
+
+    private static String name(HandlerMethod handler) {
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+}
@@ -0,0 +1,46 @@
+package com.omnia.omnia.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Budgets de requêtes SQL par requête HTTP (app.sql-budget.*) : budget par défaut, par contrôleur
+ * (app.sql-budget.controllers.DashboardController=12) ou par méthode
+ * (app.sql-budget.methods[DashboardController.getMapData]=3), la méthode l'emportant sur le contrôleur.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-budget")
+public class SqlBudgetProperties {
+
+    public enum Mode {
+        // Aucun contrôle
+        OFF,
+        // Journal WARN et compteur omnia.sql.budget.exceeded
+        WARN,
+        // La requête SQL qui dépasse le budget lève une exception (développement, tests d'intégration)
+        STRICT
+    }
+
+    private Mode mode = Mode.WARN;
+
+    private int defaultBudget = 6;
+
+    private Map<String, Integer> controllers = new HashMap<>();
+
+    private Map<String, Integer> methods = new HashMap<>();
+
+    public int budgetFor(HandlerMethod handler) {
+        String controller = handler.getBeanType().getSimpleName();
+        Integer budget = methods.get(controller + "." + handler.getMethod().getName());
+        if (budget == null) {
+            budget = controllers.get(controller);
+        }
+        return budget != null ? budget : defaultBudget;
+    }
+}
@@ -0,0 +1,215 @@
+package com.omnia.omnia.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suivi des requêtes SQL émises par Hibernate : compteur par thread (StatementInspector, lu par requête HTTP),
+ * temps d'exécution JDBC (ExecutionListener) et journal échantillonné des requêtes lentes, qui remplace show-sql.
+ * Le compteur porte aussi le budget de la requête en cours (SqlBudgetInterceptor) : en mode strict, la requête SQL
+ * qui le dépasse échoue avant d'être envoyée à la base.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlStatementMonitor implements StatementInspector {
+
+    private static final String[] KINDS = {"select", "insert", "update", "delete"};
+
+    // Instance Spring, lue par les ExecutionListener que Hibernate instancie lui-même (un par session)
+    private static volatile SqlStatementMonitor instance;
+
+    private static final ThreadLocal<Statements> CURRENT = ThreadLocal.withInitial(Statements::new);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.slow-query.threshold-ms:200}")
+    private long slowQueryThresholdMillis;
+
+    @Value("${app.metrics.slow-query.log-interval-seconds:60}")
+    private long slowQueryLogIntervalSeconds;
+
+    // Un timer par type de requête (select, insert, update, delete, other)
+    private Timer[] executionTimers;
+    private Counter slowQueries;
+    private long slowQueryThresholdNanos;
+    private long slowQueryLogIntervalNanos;
+
+    // Requête lente -> échantillon : une même requête est journalisée au plus une fois par intervalle
+    private Cache<String, SlowQuerySample> slowQuerySamples;
+
+    private static final class Statements {
+        private int count;
+        private String lastSql;
+        private String handler;
+        private int budget = -1;
+        private boolean strict;
+    }
+
+    private static final class SlowQuerySample {
+        private long lastLoggedAt;
+        private long suppressed = -1;
+
+        // Nombre d'occurrences non journalisées depuis le dernier journal, ou -1 si celle-ci ne doit pas l'être
+        synchronized long sample(long now, long interval) {
+            if (suppressed >= 0 && now - lastLoggedAt < interval) {
+                suppressed++;
+                return -1;
+            }
+            long skipped = Math.max(0, suppressed);
+            lastLoggedAt = now;
+            suppressed = 0;
+            return skipped;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        executionTimers = new Timer[KINDS.length + 1];
+        for (int i = 0; i <= KINDS.length; i++) {
+            executionTimers[i] = Timer.builder("omnia.sql.execution")
+                    .description("Temps d'exécution JDBC des requêtes émises par Hibernate")
+                    .tag("kind", i < KINDS.length ? KINDS[i] : "other")
+                    .register(meterRegistry);
+        }
+        slowQueries = Counter.builder("omnia.sql.slow")
+                .description("Requêtes SQL au-delà du seuil app.metrics.slow-query.threshold-ms")
+                .register(meterRegistry);
+        slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+        slowQueryLogIntervalNanos = TimeUnit.SECONDS.toNanos(slowQueryLogIntervalSeconds);
+        slowQuerySamples = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .build();
+        instance = this;
+    }
+
+    @PreDestroy
+    void close() {
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Statements statements = CURRENT.get();
+        statements.count++;
+        statements.lastSql = sql;
+        if (statements.strict && statements.budget >= 0 && statements.count > statements.budget) {
+            throw new IllegalStateException("Budget SQL dépassé : " + statements.handler + " (budget " + statements.budget
+                    + ") émet sa requête n°" + statements.count + " : " + sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Remet à zéro le compteur du thread courant et retire son budget (début d'une requête HTTP)
+     */
+    public void reset() {
+        Statements statements = CURRENT.get();
+        statements.count = 0;
+        clearBudget(statements);
+    }
+
+    /**
+     * Budget de la requête en cours, compté depuis le dernier reset() ; strict : dépassement en exception
+     */
+    public void budget(String handler, int budget, boolean strict) {
+        Statements statements = CURRENT.get();
+        statements.handler = handler;
+        statements.budget = budget;
+        statements.strict = strict;
+    }
+
+    public void clearBudget() {
+        clearBudget(CURRENT.get());
+    }
+
+    private static void clearBudget(Statements statements) {
+        statements.handler = null;
+        statements.budget = -1;
+        statements.strict = false;
+    }
+
+    /**
+     * Nombre de requêtes SQL préparées sur le thread courant depuis le dernier reset()
+     */
+    public int count() {
+        return CURRENT.get().count;
+    }
+
+    private void executed(long nanos) {
+        String sql = CURRENT.get().lastSql;
+        executionTimers[kind(sql)].record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos < slowQueryThresholdNanos || sql == null) {
+            return;
+        }
+        slowQueries.increment();
+        long skipped = slowQuerySamples.get(sql, key -> new SlowQuerySample()).sample(System.nanoTime(), slowQueryLogIntervalNanos);
+        if (skipped >= 0) {
+            log.warn("Requête SQL lente ({} ms{}) : {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    skipped > 0 ? ", " + skipped + " autres occurrences depuis le dernier journal" : "", sql);
+        }
+    }
+
+    private static int kind(String sql) {
+        if (sql != null) {
+            String trimmed = sql.stripLeading();
+            for (int i = 0; i < KINDS.length; i++) {
+                if (trimmed.regionMatches(true, 0, KINDS[i], 0, KINDS[i].length())) {
+                    return i;
+                }
+            }
+        }
+        return KINDS.length;
+    }
+
+    /**
+     * Mesure des exécutions JDBC d'une session (hibernate.session.events.auto) ; la requête exécutée est la dernière
+     * préparée sur le thread, vue par inspect()
+     */
+    public static class ExecutionListener extends BaseSessionEventListener {
+
+        private long start;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            record();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            record();
+        }
+
+        private void record() {
+            SqlStatementMonitor monitor = instance;
+            if (monitor != null) {
+                monitor.executed(System.nanoTime() - start);
+            }
+        }
+    }
+}
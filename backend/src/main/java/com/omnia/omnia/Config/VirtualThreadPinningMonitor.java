@@ -0,0 +1,117 @@
+package com.omnia.omnia.Config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic d'épinglage des threads virtuels : jusqu'à Java 23, un thread virtuel qui bloque dans un bloc synchronized
+ * (pilote JDBC, pool, bibliothèque) garde son thread porteur. Les événements JFR jdk.VirtualThreadPinned sont mesurés
+ * (omnia.virtual-threads.pinned, par première classe hors JDK de la pile) et journalisés avec leur pile, au plus une
+ * fois par intervalle et par origine. Actif avec spring.threads.virtual.enabled=true sur Java 21+.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMillis;
+
+    @Value("${app.virtual-threads.pinning.log-interval-seconds:60}")
+    private long logIntervalSeconds;
+
+    private RecordingStream stream;
+
+    // Origine -> dernier journal (nanoTime)
+    private final Map<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void start() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled sans effet sur Java {} : threads virtuels à partir de Java 21", javaVersion);
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(thresholdMillis))
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Threads virtuels : suivi de l'épinglage au-delà de {} ms", thresholdMillis);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String origin = origin(event.getStackTrace());
+        Timer.builder("omnia.virtual-threads.pinned")
+                .description("Durée des blocages de threads virtuels épinglés à leur thread porteur")
+                .tag("origin", origin)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        long now = System.nanoTime();
+        long interval = TimeUnit.SECONDS.toNanos(logIntervalSeconds);
+        Long previous = lastLogged.get(origin);
+        boolean sampled = previous == null
+                ? lastLogged.putIfAbsent(origin, now) == null
+                : now - previous >= interval && lastLogged.replace(origin, previous, now);
+        if (sampled) {
+            log.warn("Thread virtuel épinglé {} ms ({}) :\n{}", event.getDuration().toMillis(), origin, frames(event.getStackTrace()));
+        }
+    }
+
+    // Première classe hors JDK de la pile : pilote JDBC, pool de connexions ou code applicatif
+    private static String origin(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type;
+            }
+        }
+        return "jdk";
+    }
+
+    private static String frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(pile indisponible)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + " (ligne " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.omnia.omnia.Controller;
+
+import com.omnia.omnia.Service.ExpiringStockService;
+import com.omnia.omnia.dto.ExpiringStockReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/aid")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:4300"})
+public class AidController {
+
+    private final ExpiringStockService expiringStockService;
+
+    @GetMapping(value = "/expiring", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getExpiringAid(
+            @RequestParam(defaultValue = "30") int withinDays,
+            @RequestParam(required = false) String category) {
+        expiringStockService.checkExpiringRequest(withinDays, category);
+        StreamingResponseBody body = out -> expiringStockService.streamExpiring(withinDays, category, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/expiring/summary")
+    public ResponseEntity<ExpiringStockReport> getExpiringSummary() {
+        return ResponseEntity.ok(expiringStockService.getLastReport());
+    }
+
+    @PostMapping("/expiring/scan")
+    public ResponseEntity<ExpiringStockReport> scanExpiring() {
+        return ResponseEntity.ok(expiringStockService.scan());
+    }
+}
@@ -1,11 +1,14 @@
 package com.omnia.omnia.Controller;
 
 import com.omnia.omnia.Entities.AidType;
+import com.omnia.omnia.Entities.ChangeEntityType;
 import com.omnia.omnia.Service.AidTypeService;
+import com.omnia.omnia.Service.TableVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,15 +20,16 @@ import java.util.UUID;
 public class AidTypeController {
 
     private final AidTypeService aidTypeService;
+    private final TableVersionService tableVersionService;
 
     @GetMapping
-    public ResponseEntity<List<AidType>> getAllAidTypes() {
-        return ResponseEntity.ok(aidTypeService.findAll());
+    public ResponseEntity<List<AidType>> getAllAidTypes(WebRequest request) {
+        return ConditionalResponses.ok(request, aidTypesStamp(), aidTypeService::findAll);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AidType> getAidTypeById(@PathVariable UUID id) {
-        return ResponseEntity.ok(aidTypeService.findById(id));
+    public ResponseEntity<AidType> getAidTypeById(@PathVariable UUID id, WebRequest request) {
+        return ConditionalResponses.ok(request, aidTypesStamp(), () -> aidTypeService.findById(id));
     }
 
     @PostMapping
@@ -47,13 +51,13 @@ public class AidTypeController {
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<AidType>> getAidTypesByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(aidTypeService.findByCategory(category));
+    public ResponseEntity<List<AidType>> getAidTypesByCategory(@PathVariable String category, WebRequest request) {
+        return ConditionalResponses.ok(request, aidTypesStamp(), () -> aidTypeService.findByCategory(category));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<AidType>> getActiveAidTypes() {
-        return ResponseEntity.ok(aidTypeService.findActive());
+    public ResponseEntity<List<AidType>> getActiveAidTypes(WebRequest request) {
+        return ConditionalResponses.ok(request, aidTypesStamp(), aidTypeService::findActive);
     }
 
     @PostMapping("/initialize")
@@ -61,4 +65,8 @@ public class AidTypeController {
         aidTypeService.initializeDefaultAidTypes();
         return ResponseEntity.ok("Default aid types initialized successfully");
     }
+
+    private TableVersionService.Stamp aidTypesStamp() {
+        return tableVersionService.stamp("aid-types", ChangeEntityType.AID_TYPE);
+    }
 }
\ No newline at end of file
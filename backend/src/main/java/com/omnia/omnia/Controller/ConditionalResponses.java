@@ -0,0 +1,35 @@
+package com.omnia.omnia.Controller;
+
+import com.omnia.omnia.Service.TableVersionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Requêtes conditionnelles (If-None-Match / If-Modified-Since) à partir des versions de table :
+ * le 304 est décidé avant de calculer le corps, donc sans accès à la base.
+ */
+final class ConditionalResponses {
+
+    // Le client garde la réponse mais la revalide à chaque utilisation
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> ok(WebRequest request, TableVersionService.Stamp stamp, Supplier<T> body) {
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(stamp.etag())
+                .lastModified(stamp.lastModified())
+                .body(body.get());
+    }
+}
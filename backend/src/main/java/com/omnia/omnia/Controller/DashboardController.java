@@ -1,10 +1,16 @@
 package com.omnia.omnia.Controller;
 
 
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Service.AidRollupService;
 import com.omnia.omnia.Service.DashboardService;
+import com.omnia.omnia.Service.FamilyRollupService;
+import com.omnia.omnia.Service.TableVersionService;
+import com.omnia.omnia.Service.VisitRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -15,24 +21,63 @@ import java.util.UUID;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final VisitRollupService visitRollupService;
+    private final AidRollupService aidRollupService;
+    private final FamilyRollupService familyRollupService;
+    private final TableVersionService tableVersionService;
 
     @GetMapping("/stats")
-    public ResponseEntity<?> getDashboardStats() {
-        return ResponseEntity.ok(dashboardService.getDashboardStats());
+    public ResponseEntity<?> getDashboardStats(WebRequest request) {
+        TableVersionService.Stamp stamp = tableVersionService.dailyStamp("dashboard",
+                ChangeEntityType.FAMILY, ChangeEntityType.VISIT);
+        return ConditionalResponses.ok(request, stamp, dashboardService::getDashboardStats);
+    }
+
+    @GetMapping("/monthly-stats")
+    public ResponseEntity<?> getMonthlyStats(
+            @RequestParam(defaultValue = "6") int months,
+            WebRequest request) {
+        TableVersionService.Stamp stamp = tableVersionService.dailyStamp("monthly-stats",
+                ChangeEntityType.FAMILY, ChangeEntityType.VISIT);
+        return ConditionalResponses.ok(request, stamp, () -> dashboardService.getMonthlyStats(months));
     }
 
     @GetMapping("/family/{familyId}/stats")
-    public ResponseEntity<?> getFamilyStats(@PathVariable UUID familyId) {
-        return ResponseEntity.ok(dashboardService.getFamilyStats(familyId));
+    public ResponseEntity<?> getFamilyStats(@PathVariable UUID familyId, WebRequest request) {
+        TableVersionService.Stamp stamp = tableVersionService.dailyStamp("family-stats",
+                ChangeEntityType.FAMILY, ChangeEntityType.VISIT);
+        return ConditionalResponses.ok(request, stamp, () -> dashboardService.getFamilyStats(familyId));
     }
 
-//    @GetMapping("/map")
-//    public ResponseEntity<?> getMapStats() {
-//        return ResponseEntity.ok(dashboardService.getMapStats());
-//    }
+    @GetMapping("/map")
+    public ResponseEntity<?> getMapData(WebRequest request) {
+        TableVersionService.Stamp stamp = tableVersionService.stamp("map",
+                ChangeEntityType.FAMILY, ChangeEntityType.VISIT);
+        return ConditionalResponses.ok(request, stamp, dashboardService::getMapData);
+    }
 
     @GetMapping("/aid-stats")
-    public ResponseEntity<?> getAidStats() {
-        return ResponseEntity.ok(dashboardService.getAidStats());
+    public ResponseEntity<?> getAidStats(WebRequest request) {
+        TableVersionService.Stamp stamp = tableVersionService.dailyStamp("aid-stats",
+                ChangeEntityType.AID_TYPE, ChangeEntityType.FAMILY, ChangeEntityType.VISIT);
+        return ConditionalResponses.ok(request, stamp, dashboardService::getAidStats);
+    }
+
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<String> rebuildVisitRollup() {
+        int buckets = visitRollupService.rebuild();
+        return ResponseEntity.ok("Visit rollup rebuilt: " + buckets + " buckets");
+    }
+
+    @PostMapping("/aid-rollup/rebuild")
+    public ResponseEntity<String> rebuildAidRollup() {
+        int buckets = aidRollupService.rebuild();
+        return ResponseEntity.ok("Aid rollup rebuilt: " + buckets + " buckets");
+    }
+
+    @PostMapping("/family-rollup/rebuild")
+    public ResponseEntity<String> rebuildFamilyRollup() {
+        int buckets = familyRollupService.rebuild();
+        return ResponseEntity.ok("Family rollup rebuilt: " + buckets + " buckets");
     }
 }
\ No newline at end of file
@@ -1,12 +1,24 @@
 package com.omnia.omnia.Controller;
 
 
+import com.omnia.omnia.Entities.ChangeEntityType;
 import com.omnia.omnia.Entities.Family;
 import com.omnia.omnia.Service.FamilyService;
+import com.omnia.omnia.dto.CursorPage;
+import com.omnia.omnia.dto.FamilyDetail;
+import com.omnia.omnia.dto.FamilyLookupMatch;
+import com.omnia.omnia.dto.FamilySummary;
+import com.omnia.omnia.Service.FamilySpatialIndexService;
+import com.omnia.omnia.Service.TableVersionService;
+import com.omnia.omnia.dto.MapTile;
+import com.omnia.omnia.dto.NearbyFamily;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,24 +30,44 @@ import java.util.UUID;
 public class FamilyController {
 
     private final FamilyService familyService;
+    private final FamilySpatialIndexService familySpatialIndexService;
+    private final TableVersionService tableVersionService;
 
     @GetMapping
-    public ResponseEntity<List<Family>> getAllFamilies() {
+    public ResponseEntity<List<FamilySummary>> getAllFamilies() {
         return ResponseEntity.ok(familyService.findAll());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<FamilySummary>> getFamiliesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(familyService.findPage(cursor, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFamilies() {
+        StreamingResponseBody body = familyService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Family> getFamilyById(@PathVariable UUID id) {
-        return ResponseEntity.ok(familyService.findById(id));
+    public ResponseEntity<FamilyDetail> getFamilyById(@PathVariable UUID id, WebRequest request) {
+        // Le détail inclut les noms des types d'aide fréquents
+        TableVersionService.Stamp stamp = tableVersionService.stamp("family",
+                ChangeEntityType.FAMILY, ChangeEntityType.AID_TYPE);
+        return ConditionalResponses.ok(request, stamp, () -> familyService.findDetailById(id));
     }
 
     @PostMapping
-    public ResponseEntity<Family> createFamily(@RequestBody Family family) {
+    public ResponseEntity<FamilyDetail> createFamily(@RequestBody Family family) {
         return new ResponseEntity<>(familyService.create(family), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Family> updateFamily(
+    public ResponseEntity<FamilyDetail> updateFamily(
             @PathVariable UUID id,
             @RequestBody Family family) {
         return ResponseEntity.ok(familyService.update(id, family));
@@ -48,12 +80,28 @@ public class FamilyController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Family>> searchFamilies(@RequestParam String query) {
-        return ResponseEntity.ok(familyService.search(query));
+    public ResponseEntity<List<FamilySummary>> searchFamilies(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(familyService.search(query, limit));
+    }
+
+    @GetMapping("/lookup")
+    public ResponseEntity<List<FamilyLookupMatch>> lookupFamilies(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(familyService.lookup(q, limit));
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<FamilyLookupMatch>> findPossibleDuplicates(
+            @RequestParam(required = false) String headOfFamily,
+            @RequestParam(required = false) String phone) {
+        return ResponseEntity.ok(familyService.findPossibleDuplicates(headOfFamily, phone));
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Family>> getFamiliesByPriority(
+    public ResponseEntity<List<FamilySummary>> getFamiliesByPriority(
             @PathVariable String priority) {
         return ResponseEntity.ok(familyService.findByPriority(priority));
     }
@@ -62,4 +110,22 @@ public class FamilyController {
     public ResponseEntity<Long> countFamilies() {
         return ResponseEntity.ok(familyService.count());
     }
+
+    @GetMapping("/tiles/{z}/{x}/{y}")
+    public ResponseEntity<MapTile> getFamilyTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y) {
+        return ResponseEntity.ok(familySpatialIndexService.getTile(z, x, y));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyFamily>> getNearbyFamilies(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String priority) {
+        return ResponseEntity.ok(familyService.findNearby(lat, lng, radiusKm, limit, priority));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.omnia.omnia.Controller;
+
+import com.omnia.omnia.Service.SyncService;
+import com.omnia.omnia.dto.SyncChanges;
+import com.omnia.omnia.dto.SyncEditRequest;
+import com.omnia.omnia.dto.SyncEditResponse;
+import com.omnia.omnia.dto.VisitSyncRequest;
+import com.omnia.omnia.dto.VisitSyncResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:4300"})
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChanges> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(syncService.getChanges(since, limit));
+    }
+
+    @PostMapping("/edits")
+    public ResponseEntity<SyncEditResponse> applyEdits(@RequestBody SyncEditRequest request) {
+        return ResponseEntity.ok(syncService.applyEdits(request.getEdits()));
+    }
+
+    @PostMapping("/visits")
+    public ResponseEntity<VisitSyncResponse> syncVisits(
+            @RequestBody VisitSyncRequest request,
+            Authentication authentication) {
+        return ResponseEntity.ok(syncService.syncVisits(
+                request.getVisits(),
+                authentication != null ? authentication.getName() : null));
+    }
+}
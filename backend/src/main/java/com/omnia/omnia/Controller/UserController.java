@@ -3,6 +3,7 @@ package com.omnia.omnia.Controller;
 
 import com.omnia.omnia.Entities.User;
 import com.omnia.omnia.Service.UserService;
+import com.omnia.omnia.dto.UserSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,22 +21,22 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
         return ResponseEntity.ok(userService.findAll());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable UUID id) {
-        return ResponseEntity.ok(userService.findById(id));
+    public ResponseEntity<UserSummary> getUserById(@PathVariable UUID id) {
+        return ResponseEntity.ok(userService.findSummaryById(id));
     }
 
     @PostMapping
-    public ResponseEntity<User> createUser(@RequestBody User user) {
+    public ResponseEntity<UserSummary> createUser(@RequestBody User user) {
         return new ResponseEntity<>(userService.create(user), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(
+    public ResponseEntity<UserSummary> updateUser(
             @PathVariable UUID id,
             @RequestBody User user) {
         return ResponseEntity.ok(userService.update(id, user));
@@ -48,29 +49,29 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<User> login(
+    public ResponseEntity<UserSummary> login(
             @RequestParam String email,
             @RequestParam String password) {
         return ResponseEntity.ok(userService.login(email, password));
     }
 
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable String role) {
+    public ResponseEntity<List<UserSummary>> getUsersByRole(@PathVariable String role) {
         return ResponseEntity.ok(userService.findByRole(role));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<User>> getActiveUsers() {
+    public ResponseEntity<List<UserSummary>> getActiveUsers() {
         return ResponseEntity.ok(userService.findActiveUsers());
     }
 
     @PutMapping("/{id}/deactivate")
-    public ResponseEntity<User> deactivateUser(@PathVariable UUID id) {
+    public ResponseEntity<UserSummary> deactivateUser(@PathVariable UUID id) {
         return ResponseEntity.ok(userService.deactivateUser(id));
     }
 
     @PutMapping("/{id}/activate")
-    public ResponseEntity<User> activateUser(@PathVariable UUID id) {
+    public ResponseEntity<UserSummary> activateUser(@PathVariable UUID id) {
         return ResponseEntity.ok(userService.activateUser(id));
     }
 }
\ No newline at end of file
@@ -3,10 +3,16 @@ package com.omnia.omnia.Controller;
 
 import com.omnia.omnia.Entities.Visit;
 import com.omnia.omnia.Service.VisitService;
+import com.omnia.omnia.dto.CursorPage;
+import com.omnia.omnia.dto.FamilyDue;
+import com.omnia.omnia.dto.VisitDetail;
+import com.omnia.omnia.dto.VisitSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -20,17 +26,32 @@ public class VisitController {
     private final VisitService visitService;
 
     @GetMapping
-    public ResponseEntity<List<Visit>> getAllVisits() {
+    public ResponseEntity<List<VisitSummary>> getAllVisits() {
         return ResponseEntity.ok(visitService.findAll());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<VisitSummary>> getVisitsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(visitService.findPage(cursor, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportVisits() {
+        StreamingResponseBody body = visitService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Visit> getVisitById(@PathVariable UUID id) {
-        return ResponseEntity.ok(visitService.findById(id));
+    public ResponseEntity<VisitDetail> getVisitById(@PathVariable UUID id) {
+        return ResponseEntity.ok(visitService.findDetailById(id));
     }
 
     @PostMapping("/family/{familyId}")
-    public ResponseEntity<Visit> createVisit(
+    public ResponseEntity<VisitDetail> createVisit(
             @PathVariable UUID familyId,
             @RequestBody Visit visit) {
         return new ResponseEntity<>(
@@ -40,7 +61,7 @@ public class VisitController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Visit> updateVisit(
+    public ResponseEntity<VisitDetail> updateVisit(
             @PathVariable UUID id,
             @RequestBody Visit visit) {
         return ResponseEntity.ok(visitService.update(id, visit));
@@ -52,13 +73,20 @@ public class VisitController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/due")
+    public ResponseEntity<List<FamilyDue>> getDueVisits(
+            @RequestParam(defaultValue = "7") int withinDays,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(visitService.findDue(withinDays, limit));
+    }
+
     @GetMapping("/family/{familyId}")
-    public ResponseEntity<List<Visit>> getVisitsByFamily(@PathVariable UUID familyId) {
+    public ResponseEntity<List<VisitSummary>> getVisitsByFamily(@PathVariable UUID familyId) {
         return ResponseEntity.ok(visitService.findByFamily(familyId));
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<Visit>> getRecentVisits() {
+    public ResponseEntity<List<VisitSummary>> getRecentVisits() {
         return ResponseEntity.ok(visitService.findRecentVisits());
     }
 }
\ No newline at end of file
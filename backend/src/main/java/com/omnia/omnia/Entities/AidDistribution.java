@@ -1,6 +1,7 @@
 package com.omnia.omnia.Entities;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -8,6 +9,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+// Index des lots arrivant à expiration : parcours par plage de dates, déjà trié
+@Table(indexes = {
+        @Index(name = "idx_aid_distribution_expiration", columnList = "expiration_date, aid_type_id")
+})
 @Getter
 @Setter
 @ToString
@@ -21,12 +26,17 @@ public class AidDistribution {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "visit_id", nullable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Visit visit;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "aid_type_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private AidType aidType;
 
     private String description; // Détails supplémentaires
@@ -0,0 +1,52 @@
+package com.omnia.omnia.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Agrégat mensuel des aides distribuées, par (mois de distribution, type d'aide, priorité de la famille).
+ * La catégorie et l'unité sont lues dans le catalogue des types d'aide au moment de la requête.
+ * Maintenu incrémentalement par VisitService / SyncService / FamilyService, reconstructible via AidRollupService.rebuild().
+ */
+@Entity
+@Table(
+        name = "aid_monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_aid_rollup_bucket",
+                columnNames = {"rollup_month", "aid_type_id", "priority_level"}
+        )
+)
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AidMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // Premier jour du mois
+    @Column(name = "rollup_month", nullable = false)
+    private LocalDate rollupMonth;
+
+    @Column(name = "aid_type_id", nullable = false)
+    private UUID aidTypeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority_level", nullable = false)
+    private PriorityLevel priorityLevel;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long totalQuantity = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long distributionCount = 0L;
+}
@@ -2,10 +2,16 @@ package com.omnia.omnia.Entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.UUID;
 
 @Entity
 @Table(name = "aid_types")
+// Cache de second niveau : les associations AidDistribution.aidType sont résolues sans requête
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @ToString
@@ -0,0 +1,7 @@
+package com.omnia.omnia.Entities;
+
+public enum ChangeEntityType {
+    FAMILY,
+    VISIT,
+    AID_TYPE
+}
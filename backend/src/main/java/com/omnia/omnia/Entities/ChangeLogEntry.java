@@ -0,0 +1,55 @@
+package com.omnia.omnia.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Journal des modifications servi aux clients hors-ligne (/api/sync/changes).
+ * seq est croissant : un client reprend la synchronisation à partir du dernier seq reçu.
+ * Les entrées sont publiées depuis change_log_pending après commit (ChangeLogService.publish) : un seq
+ * n'est jamais rendu visible après un seq supérieur.
+ */
+@Entity
+@Table(name = "change_log")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeLogEntry implements Persistable<Long> {
+
+    // Attribué à la publication (ChangeLogSequence), pas par une séquence de la base
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeEntityType entityType;
+
+    @Column(nullable = false)
+    private UUID entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeOperation operation;
+
+    @Builder.Default
+    private LocalDateTime changedAt = LocalDateTime.now();
+
+    @Override
+    public Long getId() {
+        return seq;
+    }
+
+    // Entrée jamais modifiée : save() insère directement, sans SELECT préalable pour un identifiant attribué
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.omnia.omnia.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Dernier seq publié dans change_log (une seule ligne). Verrouillée pendant la publication : les instances
+ * publient l'une après l'autre et les seq restent contigus et croissants dans l'ordre de visibilité.
+ */
+@Entity
+@Table(name = "change_log_sequence")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeLogSequence {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long lastSeq;
+}
@@ -0,0 +1,6 @@
+package com.omnia.omnia.Entities;
+
+public enum ChangeOperation {
+    UPSERT,  // Création ou modification
+    DELETE   // Suppression (tombstone)
+}
@@ -2,12 +2,19 @@ package com.omnia.omnia.Entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.OptimisticLock;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_family_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_family_next_visit_due", columnList = "next_visit_due, priority_level")
+})
 @Getter
 @Setter
 @ToString
@@ -53,14 +60,30 @@ public class Family {
             joinColumns = @JoinColumn(name = "family_id"),
             inverseJoinColumns = @JoinColumn(name = "aid_type_id")
     )
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Builder.Default
     public List<AidType> frequentAidTypes = new ArrayList<>();
 
+    // Planification, dénormalisée depuis la dernière visite (maintenue par VisitScheduleService).
+    // Hors verrouillage optimiste : l'ajout d'une visite n'entre pas en conflit avec une modification hors-ligne
+    @OptimisticLock(excluded = true)
+    private LocalDate lastVisitDate;
+
+    @OptimisticLock(excluded = true)
+    private LocalDate nextVisitDue;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Horodatage technique (@PreUpdate) : ne fait pas à lui seul changer la version
+    @OptimisticLock(excluded = true)
     private LocalDateTime updatedAt;
 
+    // Verrouillage optimiste : version de base des modifications hors-ligne
+    @Version
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,44 @@
+package com.omnia.omnia.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Agrégat journalier des inscriptions de familles, par (date de createdAt, priorité de la famille).
+ * Même structure que visit_daily_rollup ; maintenu incrémentalement par FamilyService,
+ * reconstructible via FamilyRollupService.rebuild().
+ */
+@Entity
+@Table(
+        name = "family_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_family_rollup_bucket",
+                columnNames = {"rollup_date", "priority_level"}
+        )
+)
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FamilyDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority_level", nullable = false)
+    private PriorityLevel priorityLevel;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long familyCount = 0L;
+}
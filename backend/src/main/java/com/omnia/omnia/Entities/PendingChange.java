@@ -0,0 +1,43 @@
+package com.omnia.omnia.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Modification en attente de publication dans change_log, écrite dans la transaction de la modification.
+ * Son seq n'est attribué qu'à la publication (ChangeLogService.publish), une fois la transaction validée :
+ * l'ordre des seq est celui des commits, même pour une transaction longue ou une autre instance.
+ */
+@Entity
+@Table(name = "change_log_pending")
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingChange {
+
+    // Séquence avec allocation par blocs : INSERT groupés ; l'ordre des id n'a pas de sens pour les clients
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_pending_seq")
+    @SequenceGenerator(name = "change_log_pending_seq", sequenceName = "change_log_pending_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeEntityType entityType;
+
+    @Column(nullable = false)
+    private UUID entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeOperation operation;
+
+    @Builder.Default
+    private LocalDateTime changedAt = LocalDateTime.now();
+}
@@ -1,5 +1,6 @@
 package com.omnia.omnia.Entities;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -33,7 +34,10 @@ public class User {
 
     private String phone;
 
+    // Accepté en entrée uniquement, jamais sérialisé
     @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
     private String password;
 
     @Enumerated(EnumType.STRING)
@@ -9,7 +9,10 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "visits")
+@Table(name = "visits", indexes = {
+        @Index(name = "idx_visit_date_id", columnList = "visit_date, id"),
+        @Index(name = "idx_visit_family_date", columnList = "family_id, visit_date")
+})
 @Getter
 @Setter
 @ToString
@@ -23,12 +26,16 @@ public class Visit {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "family_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Family family;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "volunteer_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User volunteer; // Peut être null si pas d'authentification
 
     // Alternative si User pas encore implémenté :
@@ -52,6 +59,8 @@ public class Visit {
 
     // Aides distribuées lors de cette visite
     @OneToMany(mappedBy = "visit", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Builder.Default
     private List<AidDistribution> aidDistributions = new ArrayList<>();
 
@@ -59,6 +68,8 @@ public class Visit {
     @ElementCollection
     @CollectionTable(name = "visit_identified_needs", joinColumns = @JoinColumn(name = "visit_id"))
     @Column(name = "need_description", length = 1000)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Builder.Default
     private List<String> identifiedNeeds = new ArrayList<>();
 
@@ -68,9 +79,17 @@ public class Visit {
     @Builder.Default
     private Boolean synced = true;
 
+    // Identifiant généré par le client hors-ligne (déduplication des renvois de synchronisation)
+    @Column(unique = true)
+    private UUID clientId;
+
     @Builder.Default
     private LocalDateTime recordedAt = LocalDateTime.now();
 
+    // Verrouillage optimiste : version de base des modifications hors-ligne
+    @Version
+    private long version;
+
     // Méthode utilitaire pour ajouter une aide
     public void addAidDistribution(AidDistribution aid) {
         aidDistributions.add(aid);
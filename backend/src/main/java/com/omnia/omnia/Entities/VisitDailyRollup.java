@@ -0,0 +1,47 @@
+package com.omnia.omnia.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Agrégat journalier des visites, par (date, type de visite, priorité de la famille).
+ * Maintenu incrémentalement par VisitService / FamilyService, reconstructible via VisitRollupService.rebuild().
+ */
+@Entity
+@Table(
+        name = "visit_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_visit_rollup_bucket",
+                columnNames = {"rollup_date", "visit_type", "priority_level"}
+        )
+)
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VisitDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "visit_type", nullable = false)
+    private VisitType visitType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority_level", nullable = false)
+    private PriorityLevel priorityLevel;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long visitCount = 0L;
+}
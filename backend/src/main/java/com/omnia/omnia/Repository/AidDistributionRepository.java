@@ -0,0 +1,65 @@
+package com.omnia.omnia.Repository;
+
+import com.omnia.omnia.Entities.AidDistribution;
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.dto.ExpiringAidRow;
+import com.omnia.omnia.dto.ExpiringAidTotal;
+import com.omnia.omnia.dto.MonthlyAidQuantity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface AidDistributionRepository extends JpaRepository<AidDistribution, UUID> {
+
+    // Source de reconstruction de aid_monthly_rollup
+    @Query("SELECT YEAR(d.distributedAt) AS year, MONTH(d.distributedAt) AS month, d.aidType.id AS aidTypeId, " +
+            "f.priorityLevel AS priorityLevel, SUM(d.quantity) AS quantity, COUNT(d) AS distributions " +
+            "FROM AidDistribution d JOIN d.visit v JOIN v.family f WHERE d.distributedAt IS NOT NULL " +
+            "GROUP BY YEAR(d.distributedAt), MONTH(d.distributedAt), d.aidType.id, f.priorityLevel")
+    List<MonthlyAidQuantity> sumGroupByMonth();
+
+    @Query("SELECT YEAR(d.distributedAt) AS year, MONTH(d.distributedAt) AS month, d.aidType.id AS aidTypeId, " +
+            "f.priorityLevel AS priorityLevel, SUM(d.quantity) AS quantity, COUNT(d) AS distributions " +
+            "FROM AidDistribution d JOIN d.visit v JOIN v.family f WHERE f = :family AND d.distributedAt IS NOT NULL " +
+            "GROUP BY YEAR(d.distributedAt), MONTH(d.distributedAt), d.aidType.id, f.priorityLevel")
+    List<MonthlyAidQuantity> sumGroupByMonthForFamily(@Param("family") Family family);
+
+    // ===== Aides arrivant à expiration (index expiration_date, aid_type_id) =====
+
+    // Flux trié par date d'expiration (à consommer dans une transaction)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT d.id AS id, d.expirationDate AS expirationDate, d.aidType.id AS aidTypeId, d.quantity AS quantity, " +
+            "d.unit AS unit, d.description AS description, v.id AS visitId, f.id AS familyId, " +
+            "f.reference AS familyReference, f.headOfFamily AS headOfFamily " +
+            "FROM AidDistribution d JOIN d.visit v JOIN v.family f " +
+            "WHERE d.expirationDate BETWEEN :from AND :to ORDER BY d.expirationDate, d.aidType.id, d.id")
+    Stream<ExpiringAidRow> streamExpiringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT d.id AS id, d.expirationDate AS expirationDate, d.aidType.id AS aidTypeId, d.quantity AS quantity, " +
+            "d.unit AS unit, d.description AS description, v.id AS visitId, f.id AS familyId, " +
+            "f.reference AS familyReference, f.headOfFamily AS headOfFamily " +
+            "FROM AidDistribution d JOIN d.visit v JOIN v.family f " +
+            "WHERE d.expirationDate BETWEEN :from AND :to AND d.aidType.id IN :aidTypeIds " +
+            "ORDER BY d.expirationDate, d.aidType.id, d.id")
+    Stream<ExpiringAidRow> streamExpiringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                 @Param("aidTypeIds") Collection<UUID> aidTypeIds);
+
+    // Totaux par type d'aide (scan quotidien)
+    @Query("SELECT d.aidType.id AS aidTypeId, COUNT(d) AS distributions, SUM(d.quantity) AS quantity, " +
+            "MIN(d.expirationDate) AS earliestExpiration " +
+            "FROM AidDistribution d WHERE d.expirationDate BETWEEN :from AND :to GROUP BY d.aidType.id")
+    List<ExpiringAidTotal> sumExpiringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
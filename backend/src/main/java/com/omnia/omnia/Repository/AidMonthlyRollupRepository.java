@@ -0,0 +1,53 @@
+package com.omnia.omnia.Repository;
+
+import com.omnia.omnia.Entities.AidMonthlyRollup;
+import com.omnia.omnia.dto.AidQuantity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface AidMonthlyRollupRepository extends JpaRepository<AidMonthlyRollup, UUID> {
+
+    // Incrémente (ou décrémente) un bucket, créé s'il n'existe pas encore : requête atomique sur uk_aid_rollup_bucket
+    // (voir VisitDailyRollupRepository.addToBucket)
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "aid_monthly_rollup"))
+    @Query(value = "INSERT INTO aid_monthly_rollup (id, rollup_month, aid_type_id, priority_level, total_quantity, " +
+            "distribution_count) VALUES (:id, :month, :aidTypeId, :priorityLevel, :quantity, :distributions) " +
+            "ON DUPLICATE KEY UPDATE total_quantity = total_quantity + :quantity, " +
+            "distribution_count = distribution_count + :distributions", nativeQuery = true)
+    void addToBucket(@Param("id") UUID id,
+                     @Param("month") LocalDate month,
+                     @Param("aidTypeId") UUID aidTypeId,
+                     @Param("priorityLevel") String priorityLevel,
+                     @Param("quantity") long quantity,
+                     @Param("distributions") long distributions);
+
+    // Quantités par type d'aide (tout l'historique)
+    @Query("SELECT r.aidTypeId AS aidTypeId, SUM(r.totalQuantity) AS quantity, SUM(r.distributionCount) AS distributions " +
+            "FROM AidMonthlyRollup r GROUP BY r.aidTypeId")
+    List<AidQuantity> sumGroupByAidType();
+
+    // Quantités par mois et type d'aide sur une période (la catégorie est déduite du type)
+    @Query("SELECT r.rollupMonth AS month, r.aidTypeId AS aidTypeId, SUM(r.totalQuantity) AS quantity, " +
+            "SUM(r.distributionCount) AS distributions " +
+            "FROM AidMonthlyRollup r WHERE r.rollupMonth BETWEEN :start AND :end GROUP BY r.rollupMonth, r.aidTypeId")
+    List<AidQuantity> sumGroupByMonthAndAidType(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Quantités par priorité de la famille et type d'aide (tout l'historique)
+    @Query("SELECT r.priorityLevel AS priorityLevel, r.aidTypeId AS aidTypeId, SUM(r.totalQuantity) AS quantity, " +
+            "SUM(r.distributionCount) AS distributions " +
+            "FROM AidMonthlyRollup r GROUP BY r.priorityLevel, r.aidTypeId")
+    List<AidQuantity> sumGroupByPriorityAndAidType();
+}
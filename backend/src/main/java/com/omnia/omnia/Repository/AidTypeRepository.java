@@ -3,6 +3,7 @@ package com.omnia.omnia.Repository;
 import com.omnia.omnia.Entities.AidCategory;
 import com.omnia.omnia.Entities.AidType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +20,7 @@ public interface AidTypeRepository extends JpaRepository<AidType, UUID> {
 
     // Par nom
     AidType findByName(String name);
+
+    @Query("SELECT a.id FROM AidType a")
+    List<UUID> findAllIds();
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.omnia.omnia.Repository;
+
+import com.omnia.omnia.Entities.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    // Modifications postérieures au curseur (seq attribués à la publication, dans l'ordre des commits)
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.seq > :since ORDER BY c.seq")
+    List<ChangeLogEntry> findChangesAfter(@Param("since") long since, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM ChangeLogEntry c")
+    long findLastSeq();
+}
@@ -0,0 +1,19 @@
+package com.omnia.omnia.Repository;
+
+import com.omnia.omnia.Entities.ChangeLogSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChangeLogSequenceRepository extends JpaRepository<ChangeLogSequence, Integer> {
+
+    // SELECT ... FOR UPDATE : une seule publication à la fois, toutes instances confondues
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ChangeLogSequence s WHERE s.id = " + ChangeLogSequence.SINGLETON_ID)
+    Optional<ChangeLogSequence> lockSequence();
+}
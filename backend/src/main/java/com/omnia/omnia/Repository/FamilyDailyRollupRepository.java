@@ -0,0 +1,39 @@
+package com.omnia.omnia.Repository;
+
+import com.omnia.omnia.Entities.FamilyDailyRollup;
+import com.omnia.omnia.dto.MonthlyCount;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface FamilyDailyRollupRepository extends JpaRepository<FamilyDailyRollup, UUID> {
+
+    // Incrémente (ou décrémente) un bucket, créé s'il n'existe pas encore : requête atomique sur uk_family_rollup_bucket
+    // (voir VisitDailyRollupRepository.addToBucket)
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "family_daily_rollup"))
+    @Query(value = "INSERT INTO family_daily_rollup (id, rollup_date, priority_level, family_count) " +
+            "VALUES (:id, :date, :priorityLevel, :delta) " +
+            "ON DUPLICATE KEY UPDATE family_count = family_count + :delta", nativeQuery = true)
+    void addToBucket(@Param("id") UUID id,
+                     @Param("date") LocalDate date,
+                     @Param("priorityLevel") String priorityLevel,
+                     @Param("delta") long delta);
+
+    // Nouvelles familles par mois sur une période
+    @Query("SELECT YEAR(r.rollupDate) AS year, MONTH(r.rollupDate) AS month, SUM(r.familyCount) AS total " +
+            "FROM FamilyDailyRollup r WHERE r.rollupDate BETWEEN :start AND :end " +
+            "GROUP BY YEAR(r.rollupDate), MONTH(r.rollupDate)")
+    List<MonthlyCount> sumGroupByMonth(@Param("start") LocalDate start, @Param("end") LocalDate end);
+}
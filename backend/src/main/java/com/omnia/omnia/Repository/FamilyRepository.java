@@ -2,17 +2,43 @@ package com.omnia.omnia.Repository;
 
 import com.omnia.omnia.Entities.Family;
 import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.dto.DailyFamilyCount;
+import com.omnia.omnia.dto.FamilyDueRow;
+import com.omnia.omnia.dto.FamilyGeoPoint;
+import com.omnia.omnia.dto.FamilyLookupDocument;
+import com.omnia.omnia.dto.FamilyMapPoint;
+import com.omnia.omnia.dto.FamilySearchDocument;
+import com.omnia.omnia.dto.FamilySummary;
+import com.omnia.omnia.dto.PriorityCount;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface FamilyRepository extends JpaRepository<Family, UUID> {
 
+    // Colonnes de la projection FamilySummary (réponses REST sans associations)
+    String SUMMARY_SELECT = "SELECT f.id AS id, f.reference AS reference, f.headOfFamily AS headOfFamily, " +
+            "f.phone AS phone, f.address AS address, f.latitude AS latitude, f.longitude AS longitude, " +
+            "f.familySize AS familySize, f.needsDescription AS needsDescription, f.priorityLevel AS priorityLevel, " +
+            "f.notes AS notes, f.lastVisitDate AS lastVisitDate, f.nextVisitDue AS nextVisitDue, " +
+            "f.createdAt AS createdAt, f.updatedAt AS updatedAt, f.version AS version FROM Family f ";
+
     // Recherche par nom du chef de famille
     List<Family> findByHeadOfFamilyContainingIgnoreCase(String name);
 
@@ -26,12 +52,103 @@ public interface FamilyRepository extends JpaRepository<Family, UUID> {
     boolean existsByReference(String reference);
 
     // Recherche globale (multi-critères)
-    @Query("SELECT f FROM Family f WHERE " +
+    @Query(SUMMARY_SELECT + "WHERE " +
             "LOWER(f.headOfFamily) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(f.address) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(f.reference) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Family> search(@Param("query") String query);
+    List<FamilySummary> search(@Param("query") String query);
+
+    // ===== Read-model (projections pour les réponses REST) =====
+
+    @Query(SUMMARY_SELECT)
+    List<FamilySummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE f.id IN :ids")
+    List<FamilySummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE f.priorityLevel = :priorityLevel")
+    List<FamilySummary> findSummariesByPriorityLevel(@Param("priorityLevel") PriorityLevel priorityLevel);
+
+    @Query("SELECT f.id FROM Family f")
+    List<UUID> findAllIds();
+
+    // Fiche famille : types d'aide chargés dans la même requête
+    @Query("SELECT f FROM Family f LEFT JOIN FETCH f.frequentAidTypes WHERE f.id = :id")
+    Optional<Family> findDetailById(@Param("id") UUID id);
+
+    // Chargement de l'index de recherche plein texte
+    @Query("SELECT f.id AS id, f.reference AS reference, f.headOfFamily AS headOfFamily, f.address AS address FROM Family f")
+    List<FamilySearchDocument> findSearchDocuments();
+
+    // Chargement de l'index de recherche approchée (trigrammes / phonétique)
+    @Query("SELECT f.id AS id, f.reference AS reference, f.headOfFamily AS headOfFamily, f.phone AS phone FROM Family f")
+    List<FamilyLookupDocument> findLookupDocuments();
 
     // Familles avec géolocalisation
     List<Family> findByLatitudeIsNotNullAndLongitudeIsNotNull();
-}
\ No newline at end of file
+
+    @Query("SELECT f.id AS id, f.latitude AS latitude, f.longitude AS longitude, f.priorityLevel AS priorityLevel " +
+            "FROM Family f WHERE f.latitude IS NOT NULL AND f.longitude IS NOT NULL")
+    List<FamilyGeoPoint> findGeoPoints();
+
+    // ===== Agrégats (COUNT côté SQL, sans charger les entités) =====
+
+    long countByLatitudeIsNotNullAndLongitudeIsNotNull();
+
+    long countByPriorityLevel(PriorityLevel priorityLevel);
+
+    @Query("SELECT f.priorityLevel AS priorityLevel, COUNT(f) AS total FROM Family f GROUP BY f.priorityLevel")
+    List<PriorityCount> countGroupByPriorityLevel();
+
+    // Points de la carte : familles géolocalisées avec leur nombre de visites (une seule requête)
+    @Query("SELECT f.id AS id, f.latitude AS latitude, f.longitude AS longitude, " +
+            "f.headOfFamily AS headOfFamily, f.reference AS reference, f.priorityLevel AS priorityLevel, " +
+            "f.familySize AS familySize, COUNT(v) AS visitCount " +
+            "FROM Family f LEFT JOIN Visit v ON v.family = f " +
+            "WHERE f.latitude IS NOT NULL AND f.longitude IS NOT NULL " +
+            "GROUP BY f.id, f.latitude, f.longitude, f.headOfFamily, f.reference, f.priorityLevel, f.familySize")
+    List<FamilyMapPoint> findMapPoints();
+
+    // ===== Pagination keyset (createdAt DESC, id DESC) =====
+
+    @Query(SUMMARY_SELECT + "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FamilySummary> findFirstPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FamilySummary> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Export complet en flux (à consommer dans une transaction)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "ORDER BY f.createdAt DESC, f.id DESC")
+    Stream<FamilySummary> streamAll();
+
+    // Source de reconstruction de family_daily_rollup (parcours de l'index sur created_at)
+    @Query("SELECT CAST(f.createdAt AS LocalDate) AS createdDate, f.priorityLevel AS priorityLevel, COUNT(f) AS total " +
+            "FROM Family f WHERE f.createdAt IS NOT NULL GROUP BY CAST(f.createdAt AS LocalDate), f.priorityLevel")
+    List<DailyFamilyCount> countGroupByCreatedDate();
+
+    // ===== Planification des visites (colonnes dénormalisées lastVisitDate / nextVisitDue) =====
+
+    @Query("SELECT f.id AS id, f.reference AS reference, f.headOfFamily AS headOfFamily, f.phone AS phone, " +
+            "f.address AS address, f.priorityLevel AS priorityLevel, f.lastVisitDate AS lastVisitDate, " +
+            "f.nextVisitDue AS nextVisitDue FROM Family f WHERE f.nextVisitDue IS NOT NULL")
+    List<FamilyDueRow> findDueRows();
+
+    long countByNextVisitDueBetween(LocalDate start, LocalDate end);
+
+    // Familles avec des visites mais sans planification calculée (colonnes ajoutées après coup)
+    @Query("SELECT COUNT(f) FROM Family f WHERE f.lastVisitDate IS NULL " +
+            "AND EXISTS (SELECT 1 FROM Visit v WHERE v.family = f)")
+    long countWithUnscheduledVisits();
+
+    // Backfill : dernière visite puis prochaine visite prévue lors de cette dernière visite (sans incrémenter la version)
+    @Modifying
+    @Query("UPDATE Family f SET f.lastVisitDate = (SELECT MAX(v.visitDate) FROM Visit v WHERE v.family = f)")
+    int backfillLastVisitDates();
+
+    @Modifying
+    @Query("UPDATE Family f SET f.nextVisitDue = (SELECT MAX(v.nextVisitDate) FROM Visit v " +
+            "WHERE v.family = f AND v.visitDate = f.lastVisitDate)")
+    int backfillNextVisitDues();
+}
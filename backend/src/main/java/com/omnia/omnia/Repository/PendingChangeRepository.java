@@ -0,0 +1,24 @@
+package com.omnia.omnia.Repository;
+
+import com.omnia.omnia.Entities.PendingChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingChangeRepository extends JpaRepository<PendingChange, Long> {
+
+    // Modifications validées en attente de publication (une transaction en cours n'est pas visible)
+    @Query("SELECT p FROM PendingChange p ORDER BY p.id")
+    List<PendingChange> findOldest(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PendingChange p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
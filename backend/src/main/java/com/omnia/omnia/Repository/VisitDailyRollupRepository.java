@@ -0,0 +1,53 @@
+package com.omnia.omnia.Repository;
+
+import com.omnia.omnia.Entities.VisitDailyRollup;
+import com.omnia.omnia.Entities.VisitType;
+import com.omnia.omnia.dto.MonthlyCount;
+import com.omnia.omnia.dto.VisitTypeCount;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface VisitDailyRollupRepository extends JpaRepository<VisitDailyRollup, UUID> {
+
+    // Incrémente (ou décrémente) un bucket, créé s'il n'existe pas encore : une seule requête atomique sur la clé
+    // uk_visit_rollup_bucket, deux premières écritures concurrentes sur un même bucket ne se heurtent pas.
+    // Types énumérés passés par leur nom (EnumType.STRING) ; seule la table d'agrégat est invalidée du cache L2.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "visit_daily_rollup"))
+    @Query(value = "INSERT INTO visit_daily_rollup (id, rollup_date, visit_type, priority_level, visit_count) " +
+            "VALUES (:id, :date, :visitType, :priorityLevel, :delta) " +
+            "ON DUPLICATE KEY UPDATE visit_count = visit_count + :delta", nativeQuery = true)
+    void addToBucket(@Param("id") UUID id,
+                     @Param("date") LocalDate date,
+                     @Param("visitType") String visitType,
+                     @Param("priorityLevel") String priorityLevel,
+                     @Param("delta") long delta);
+
+    // Total des visites sur une période
+    @Query("SELECT COALESCE(SUM(r.visitCount), 0) FROM VisitDailyRollup r " +
+            "WHERE r.rollupDate BETWEEN :start AND :end")
+    long sumBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Visites par mois sur une période
+    @Query("SELECT YEAR(r.rollupDate) AS year, MONTH(r.rollupDate) AS month, SUM(r.visitCount) AS total " +
+            "FROM VisitDailyRollup r WHERE r.rollupDate BETWEEN :start AND :end " +
+            "GROUP BY YEAR(r.rollupDate), MONTH(r.rollupDate)")
+    List<MonthlyCount> sumGroupByMonth(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Visites par type (tout l'historique)
+    @Query("SELECT r.visitType AS visitType, SUM(r.visitCount) AS total " +
+            "FROM VisitDailyRollup r GROUP BY r.visitType")
+    List<VisitTypeCount> sumGroupByVisitType();
+}
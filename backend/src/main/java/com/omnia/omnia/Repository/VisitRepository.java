@@ -4,17 +4,37 @@ package com.omnia.omnia.Repository;
 import com.omnia.omnia.Entities.Family;
 import com.omnia.omnia.Entities.Visit;
 import com.omnia.omnia.Entities.VisitType;
+import com.omnia.omnia.dto.DailyVisitCount;
+import com.omnia.omnia.dto.VisitClientRef;
+import com.omnia.omnia.dto.VisitSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface VisitRepository extends JpaRepository<Visit, UUID> {
 
+    // Colonnes de la projection VisitSummary (réponses REST sans graphe d'entités)
+    String SUMMARY_SELECT = "SELECT v.id AS id, v.visitDate AS visitDate, v.visitType AS visitType, " +
+            "v.observations AS observations, v.locationLat AS locationLat, v.locationLng AS locationLng, " +
+            "v.nextVisitDate AS nextVisitDate, v.synced AS synced, v.recordedAt AS recordedAt, v.version AS version, " +
+            "f.id AS familyId, f.reference AS familyReference, f.headOfFamily AS headOfFamily, " +
+            "u.id AS volunteerId, CONCAT(u.firstName, ' ', u.lastName) AS volunteerName " +
+            "FROM Visit v JOIN v.family f LEFT JOIN v.volunteer u ";
+
     // Visites d'une famille
     List<Visit> findByFamilyOrderByVisitDateDesc(Family family);
 
@@ -27,9 +47,79 @@ public interface VisitRepository extends JpaRepository<Visit, UUID> {
     // Visites non synchronisées (pour mode hors-ligne)
     List<Visit> findBySyncedFalse();
 
-    Object findTop5ByOrderByVisitDateDesc();
+    // Visites déjà reçues lors d'une synchronisation précédente
+    @Query("SELECT v.id AS id, v.clientId AS clientId FROM Visit v WHERE v.clientId IN :clientIds")
+    List<VisitClientRef> findByClientIdIn(@Param("clientIds") Collection<UUID> clientIds);
+
+
+    long countByNextVisitDateBetween(LocalDate today, LocalDate nextWeek);
+
+    // Planification d'une famille (index family_id, visit_date)
+    @Query("SELECT MAX(v.visitDate) FROM Visit v WHERE v.family = :family")
+    LocalDate findLastVisitDate(@Param("family") Family family);
+
+    @Query("SELECT MAX(v.nextVisitDate) FROM Visit v WHERE v.family = :family AND v.visitDate = :visitDate")
+    LocalDate findNextVisitDue(@Param("family") Family family, @Param("visitDate") LocalDate visitDate);
+
+    long countByFamily(Family family);
+
+    Optional<Visit> findFirstByFamilyOrderByVisitDateDesc(Family family);
+
+    // ===== Agrégats (COUNT côté SQL, sans charger les entités) =====
+
+    long countByVisitDateBetween(LocalDate start, LocalDate end);
+
+    // Source de reconstruction de visit_daily_rollup
+    @Query("SELECT v.visitDate AS visitDate, v.visitType AS visitType, f.priorityLevel AS priorityLevel, COUNT(v) AS total " +
+            "FROM Visit v JOIN v.family f GROUP BY v.visitDate, v.visitType, f.priorityLevel")
+    List<DailyVisitCount> countGroupByDay();
+
+    @Query("SELECT v.visitDate AS visitDate, v.visitType AS visitType, f.priorityLevel AS priorityLevel, COUNT(v) AS total " +
+            "FROM Visit v JOIN v.family f WHERE f = :family GROUP BY v.visitDate, v.visitType, f.priorityLevel")
+    List<DailyVisitCount> countGroupByDayForFamily(@Param("family") Family family);
+
+    // ===== Read-model (projections pour les réponses REST) =====
+
+    @Query(SUMMARY_SELECT + "ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitSummary> findAllSummaries();
+
+    // Dernières visites (taille fixée par le Pageable)
+    @Query(SUMMARY_SELECT + "ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitSummary> findLatestSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE v.id IN :ids")
+    List<VisitSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT v.id FROM Visit v")
+    List<UUID> findAllIds();
+
+    @Query(SUMMARY_SELECT + "WHERE f.id = :familyId ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitSummary> findSummariesByFamilyId(@Param("familyId") UUID familyId);
+
+    @Query(SUMMARY_SELECT + "WHERE v.visitDate BETWEEN :start AND :end ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitSummary> findSummariesByVisitDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Visites à fusionner (synchronisation) : famille et besoins chargés dans la même requête
+    @Query("SELECT DISTINCT v FROM Visit v JOIN FETCH v.family LEFT JOIN FETCH v.identifiedNeeds WHERE v.id IN :ids")
+    List<Visit> findAllForMergeByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Fiche visite : famille, bénévole et aides chargés dans la même requête
+    // (le type d'aide est résolu par le cache de second niveau, sans jointure)
+    @Query("SELECT DISTINCT v FROM Visit v JOIN FETCH v.family LEFT JOIN FETCH v.volunteer " +
+            "LEFT JOIN FETCH v.aidDistributions WHERE v.id = :id")
+    Optional<Visit> findDetailById(@Param("id") UUID id);
+
+    // ===== Pagination keyset (visitDate DESC, id DESC) =====
+
+    @Query(SUMMARY_SELECT + "ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitSummary> findFirstPage(Pageable pageable);
 
-    Collection<Object> findByVisitDate(LocalDate today);
+    @Query(SUMMARY_SELECT + "WHERE v.visitDate < :visitDate OR (v.visitDate = :visitDate AND v.id < :id) " +
+            "ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitSummary> findPageAfter(@Param("visitDate") LocalDate visitDate, @Param("id") UUID id, Pageable pageable);
 
-    Collection<Object> findByNextVisitDateBetween(LocalDate today, LocalDate nextWeek);
+    // Export complet en flux (à consommer dans une transaction)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "ORDER BY v.visitDate DESC, v.id DESC")
+    Stream<VisitSummary> streamAll();
 }
@@ -0,0 +1,138 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.AidDistribution;
+import com.omnia.omnia.Entities.AidMonthlyRollup;
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Entities.Visit;
+import com.omnia.omnia.Repository.AidDistributionRepository;
+import com.omnia.omnia.Repository.AidMonthlyRollupRepository;
+import com.omnia.omnia.dto.MonthlyAidQuantity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintenance de la table aid_monthly_rollup.
+ * Chaque distribution compte dans le bucket (mois de distributedAt, type d'aide, priorité actuelle de la famille).
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class AidRollupService {
+
+    private final AidMonthlyRollupRepository rollupRepository;
+    private final AidDistributionRepository aidDistributionRepository;
+    private final TableVersionService tableVersionService;
+
+    public void onVisitCreated(Visit visit) {
+        onVisitsCreated(List.of(visit));
+    }
+
+    /**
+     * Variante groupée (synchronisation hors-ligne) : une mise à jour par bucket et non par distribution
+     */
+    public void onVisitsCreated(Collection<Visit> visits) {
+        apply(visits, 1);
+    }
+
+    public void onVisitDeleted(Visit visit) {
+        apply(List.of(visit), -1);
+    }
+
+    /**
+     * Déplace les aides distribuées à une famille vers les buckets de sa nouvelle priorité
+     */
+    public void onFamilyPriorityChanged(Family family, PriorityLevel oldPriority) {
+        if (normalize(oldPriority) == normalize(family.getPriorityLevel())) {
+            return;
+        }
+        for (MonthlyAidQuantity sum : aidDistributionRepository.sumGroupByMonthForFamily(family)) {
+            LocalDate month = LocalDate.of(sum.getYear(), sum.getMonth(), 1);
+            add(month, sum.getAidTypeId(), oldPriority, -sum.getQuantity(), -sum.getDistributions());
+            add(month, sum.getAidTypeId(), family.getPriorityLevel(), sum.getQuantity(), sum.getDistributions());
+        }
+    }
+
+    /**
+     * Reconstruit entièrement l'agrégat à partir de la table aid_distribution (backfill)
+     */
+    public int rebuild() {
+        Map<BucketKey, AidMonthlyRollup> buckets = new HashMap<>();
+        for (MonthlyAidQuantity sum : aidDistributionRepository.sumGroupByMonth()) {
+            BucketKey key = new BucketKey(LocalDate.of(sum.getYear(), sum.getMonth(), 1), sum.getAidTypeId(),
+                    normalize(sum.getPriorityLevel()));
+            AidMonthlyRollup bucket = buckets.computeIfAbsent(key, k -> AidMonthlyRollup.builder()
+                    .rollupMonth(k.month())
+                    .aidTypeId(k.aidTypeId())
+                    .priorityLevel(k.priority())
+                    .build());
+            bucket.setTotalQuantity(bucket.getTotalQuantity() + sum.getQuantity());
+            bucket.setDistributionCount(bucket.getDistributionCount() + sum.getDistributions());
+        }
+
+        rollupRepository.deleteAllInBatch();
+        List<AidMonthlyRollup> rows = new ArrayList<>(buckets.values());
+        rollupRepository.saveAll(rows);
+        tableVersionService.markChanged(ChangeEntityType.VISIT);
+        log.info("aid_monthly_rollup reconstruit : {} buckets", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Backfill au premier démarrage si la table d'agrégat est vide
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && aidDistributionRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void apply(Collection<Visit> visits, int sign) {
+        Map<BucketKey, long[]> deltas = new HashMap<>();
+        for (Visit visit : visits) {
+            PriorityLevel priority = normalize(visit.getFamily().getPriorityLevel());
+            for (AidDistribution aid : visit.getAidDistributions()) {
+                // Même règle que la reconstruction : les distributions sans date ne sont pas agrégées
+                if (aid.getDistributedAt() == null || aid.getAidType() == null) {
+                    continue;
+                }
+                BucketKey key = new BucketKey(aid.getDistributedAt().toLocalDate().withDayOfMonth(1),
+                        aid.getAidType().getId(), priority);
+                long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+                delta[0] += sign * (aid.getQuantity() != null ? aid.getQuantity() : 0);
+                delta[1] += sign;
+            }
+        }
+        deltas.forEach((key, delta) -> add(key.month(), key.aidTypeId(), key.priority(), delta[0], delta[1]));
+    }
+
+    private void add(LocalDate month, UUID aidTypeId, PriorityLevel priority, long quantity, long distributions) {
+        if (quantity == 0 && distributions == 0) {
+            return;
+        }
+        rollupRepository.addToBucket(UUID.randomUUID(), month, aidTypeId, normalize(priority).name(), quantity, distributions);
+    }
+
+    private record BucketKey(LocalDate month, UUID aidTypeId, PriorityLevel priority) {
+    }
+
+    // Valeur par défaut de l'entité Family pour une priorité nulle
+    private PriorityLevel normalize(PriorityLevel priority) {
+        return priority != null ? priority : PriorityLevel.Medium;
+    }
+}
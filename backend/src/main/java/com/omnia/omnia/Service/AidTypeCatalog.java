@@ -0,0 +1,116 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.AidCategory;
+import com.omnia.omnia.Entities.AidType;
+
+import java.util.*;
+
+/**
+ * Instantané immuable du catalogue des types d'aide, indexé par id, nom et catégorie.
+ * Les AidType sont des copies détachées partagées entre les requêtes : ne jamais les modifier.
+ */
+public final class AidTypeCatalog {
+
+    private final List<AidType> all;
+    private final List<AidType> active;
+    private final Map<UUID, AidType> byId;
+    private final Map<String, AidType> byName;
+    private final Map<AidCategory, List<AidType>> byCategory;
+
+    private AidTypeCatalog(Collection<AidType> aidTypes) {
+        List<AidType> sorted = new ArrayList<>(aidTypes);
+        sorted.sort(Comparator.comparing(AidType::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<UUID, AidType> ids = new HashMap<>();
+        Map<String, AidType> names = new HashMap<>();
+        EnumMap<AidCategory, List<AidType>> categories = new EnumMap<>(AidCategory.class);
+        List<AidType> activeTypes = new ArrayList<>();
+        for (AidType aidType : sorted) {
+            ids.put(aidType.getId(), aidType);
+            if (aidType.getName() != null) {
+                names.put(aidType.getName(), aidType);
+            }
+            if (aidType.getCategory() != null) {
+                categories.computeIfAbsent(aidType.getCategory(), category -> new ArrayList<>()).add(aidType);
+            }
+            if (Boolean.TRUE.equals(aidType.getActive())) {
+                activeTypes.add(aidType);
+            }
+        }
+        categories.replaceAll((category, list) -> List.copyOf(list));
+
+        this.all = List.copyOf(sorted);
+        this.active = List.copyOf(activeTypes);
+        this.byId = Map.copyOf(ids);
+        this.byName = Map.copyOf(names);
+        this.byCategory = Collections.unmodifiableMap(categories);
+    }
+
+    /**
+     * Construit un catalogue à partir d'entités (managées ou non) : chaque type d'aide est copié
+     */
+    static AidTypeCatalog of(Collection<AidType> aidTypes) {
+        return new AidTypeCatalog(aidTypes.stream().map(AidTypeCatalog::copy).toList());
+    }
+
+    /**
+     * Nouveau catalogue avec ces types d'aide ajoutés ou remplacés (les copies sont faites par l'appelant)
+     */
+    AidTypeCatalog with(Collection<AidType> copies) {
+        Map<UUID, AidType> merged = new HashMap<>(byId);
+        for (AidType aidType : copies) {
+            merged.put(aidType.getId(), aidType);
+        }
+        return new AidTypeCatalog(merged.values());
+    }
+
+    AidTypeCatalog without(UUID id) {
+        if (!byId.containsKey(id)) {
+            return this;
+        }
+        Map<UUID, AidType> remaining = new HashMap<>(byId);
+        remaining.remove(id);
+        return new AidTypeCatalog(remaining.values());
+    }
+
+    static AidType copy(AidType aidType) {
+        return AidType.builder()
+                .id(aidType.getId())
+                .name(aidType.getName())
+                .category(aidType.getCategory())
+                .description(aidType.getDescription())
+                .unit(aidType.getUnit())
+                .active(aidType.getActive())
+                .defaultQuantity(aidType.getDefaultQuantity())
+                .icon(aidType.getIcon())
+                .build();
+    }
+
+    public List<AidType> all() {
+        return all;
+    }
+
+    public List<AidType> active() {
+        return active;
+    }
+
+    public Optional<AidType> byId(UUID id) {
+        return Optional.ofNullable(id != null ? byId.get(id) : null);
+    }
+
+    public Optional<AidType> byName(String name) {
+        return Optional.ofNullable(name != null ? byName.get(name) : null);
+    }
+
+    public List<AidType> byCategory(AidCategory category) {
+        return byCategory.getOrDefault(category, List.of());
+    }
+
+    public Map<AidCategory, List<AidType>> byCategory() {
+        return byCategory;
+    }
+
+    public int size() {
+        return all.size();
+    }
+}
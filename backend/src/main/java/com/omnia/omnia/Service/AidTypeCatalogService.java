@@ -0,0 +1,65 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.AidType;
+import com.omnia.omnia.Repository.AidTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catalogue des types d'aide en mémoire (table petite, lue à chaque formulaire et statistique).
+ * Chargé au démarrage, puis mis à jour après chaque commit par remplacement atomique de l'instantané :
+ * les lecteurs ne voient jamais un catalogue partiellement modifié.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AidTypeCatalogService {
+
+    private final AidTypeRepository aidTypeRepository;
+
+    private volatile AidTypeCatalog catalog;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        catalog = AidTypeCatalog.of(aidTypeRepository.findAll());
+        log.info("Catalogue des types d'aide chargé : {} types", catalog.size());
+    }
+
+    public AidTypeCatalog snapshot() {
+        AidTypeCatalog current = catalog;
+        if (current == null) {
+            rebuild();
+            current = catalog;
+        }
+        return current;
+    }
+
+    public void put(AidType aidType) {
+        putAll(List.of(aidType));
+    }
+
+    public void putAll(Collection<AidType> aidTypes) {
+        // Copie immédiate : l'entité managée peut encore changer avant le commit
+        List<AidType> copies = aidTypes.stream().map(AidTypeCatalog::copy).toList();
+        AfterCommit.run(() -> apply(current -> current.with(copies)));
+    }
+
+    public void remove(UUID id) {
+        AfterCommit.run(() -> apply(current -> current.without(id)));
+    }
+
+    private synchronized void apply(UnaryOperator<AidTypeCatalog> change) {
+        // Pas encore chargé : le premier snapshot() lira l'état committé
+        if (catalog != null) {
+            catalog = change.apply(catalog);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.omnia.omnia.Service;
 
 import com.omnia.omnia.Entities.AidCategory;
 import com.omnia.omnia.Entities.AidType;
+import com.omnia.omnia.Entities.ChangeEntityType;
 import com.omnia.omnia.Repository.AidTypeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -18,27 +20,34 @@ import java.util.UUID;
 public class AidTypeService {
 
     private final AidTypeRepository aidTypeRepository;
+    private final ChangeLogService changeLogService;
+    private final AidTypeCatalogService aidTypeCatalogService;
 
+    // Lectures servies par le catalogue en mémoire (aucune requête SQL)
     public List<AidType> findAll() {
-        return aidTypeRepository.findAll();
+        return aidTypeCatalogService.snapshot().all();
     }
 
     public AidType findById(UUID id) {
-        return aidTypeRepository.findById(id)
+        return aidTypeCatalogService.snapshot().byId(id)
                 .orElseThrow(() -> new RuntimeException("AidType not found with id: " + id));
     }
 
     public AidType create(AidType aidType) {
-        // Vérifier si le nom existe déjà
-        if (aidTypeRepository.findByName(aidType.getName()) != null) {
+        // Vérifier si le nom existe déjà (la contrainte unique reste le garde-fou en cas de création concurrente)
+        if (aidTypeCatalogService.snapshot().byName(aidType.getName()).isPresent()) {
             throw new RuntimeException("AidType with name '" + aidType.getName() + "' already exists");
         }
 
-        return aidTypeRepository.save(aidType);
+        AidType saved = aidTypeRepository.save(aidType);
+        changeLogService.recordUpsert(ChangeEntityType.AID_TYPE, saved.getId());
+        aidTypeCatalogService.put(saved);
+        return saved;
     }
 
     public AidType update(UUID id, AidType aidTypeDetails) {
-        AidType aidType = findById(id);
+        // Entité managée (les instances du catalogue sont partagées et ne doivent pas être modifiées)
+        AidType aidType = loadForUpdate(id);
 
         aidType.setName(aidTypeDetails.getName());
         aidType.setCategory(aidTypeDetails.getCategory());
@@ -48,33 +57,35 @@ public class AidTypeService {
         aidType.setDefaultQuantity(aidTypeDetails.getDefaultQuantity());
         aidType.setIcon(aidTypeDetails.getIcon());
 
-        return aidTypeRepository.save(aidType);
+        changeLogService.recordUpsert(ChangeEntityType.AID_TYPE, id);
+        AidType saved = aidTypeRepository.save(aidType);
+        aidTypeCatalogService.put(saved);
+        return saved;
     }
 
     public void delete(UUID id) {
-        AidType aidType = findById(id);
+        AidType aidType = loadForUpdate(id);
         aidTypeRepository.delete(aidType);
+        changeLogService.recordDelete(ChangeEntityType.AID_TYPE, id);
+        aidTypeCatalogService.remove(id);
     }
 
     public List<AidType> findByCategory(String category) {
         try {
             AidCategory aidCategory = AidCategory.valueOf(category.toUpperCase());
-            return aidTypeRepository.findByCategory(aidCategory);
+            return aidTypeCatalogService.snapshot().byCategory(aidCategory);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid category: " + category);
         }
     }
 
     public List<AidType> findActive() {
-        return aidTypeRepository.findByActiveTrue();
+        return aidTypeCatalogService.snapshot().active();
     }
 
     public AidType findByName(String name) {
-        AidType aidType = aidTypeRepository.findByName(name);
-        if (aidType == null) {
-            throw new RuntimeException("AidType not found with name: " + name);
-        }
-        return aidType;
+        return aidTypeCatalogService.snapshot().byName(name)
+                .orElseThrow(() -> new RuntimeException("AidType not found with name: " + name));
     }
 
     /**
@@ -145,6 +156,15 @@ public class AidTypeService {
             );
 
             aidTypeRepository.saveAll(defaultTypes);
+            changeLogService.recordUpserts(ChangeEntityType.AID_TYPE, defaultTypes.stream()
+                    .map(AidType::getId)
+                    .collect(Collectors.toList()));
+            aidTypeCatalogService.putAll(defaultTypes);
         }
     }
+
+    private AidType loadForUpdate(UUID id) {
+        return aidTypeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("AidType not found with id: " + id));
+    }
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final CustomUserDetailsService userDetailsService;
 
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -91,6 +92,8 @@ public class AuthService {
             throw new RuntimeException("You don't have permission to update this user");
         }
 
+        String previousEmail = userToUpdate.getEmail();
+
         // Vérifier si l'email est déjà utilisé par un autre utilisateur
         if (request.getEmail() != null && !request.getEmail().equals(userToUpdate.getEmail())) {
             if (userRepository.existsByEmail(request.getEmail())) {
@@ -115,6 +118,8 @@ public class AuthService {
         }
 
         userToUpdate = userRepository.save(userToUpdate);
+        userDetailsService.evict(previousEmail);
+        userDetailsService.evict(userToUpdate.getEmail());
         var jwtToken = jwtService.generateToken(buildUserDetails(userToUpdate));
         return buildAuthResponse(userToUpdate, jwtToken);
     }
@@ -137,6 +142,7 @@ public class AuthService {
         }
 
         userRepository.delete(userToDelete);
+        userDetailsService.evict(userToDelete.getEmail());
     }
 
     public void changePassword(String email, String oldPassword, String newPassword) {
@@ -150,6 +156,7 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userDetailsService.evict(email);
     }
 
     public void deactivateUser(UUID id, String currentUserEmail) {
@@ -165,6 +172,7 @@ public class AuthService {
 
         userToDeactivate.setActive(false);
         userRepository.save(userToDeactivate);
+        userDetailsService.evict(userToDeactivate.getEmail());
     }
 
     public void activateUser(UUID id, String currentUserEmail) {
@@ -180,6 +188,7 @@ public class AuthService {
 
         userToActivate.setActive(true);
         userRepository.save(userToActivate);
+        userDetailsService.evict(userToActivate.getEmail());
     }
 
     private UserDetails buildUserDetails(User user) {
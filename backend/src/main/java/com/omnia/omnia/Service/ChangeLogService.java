@@ -0,0 +1,133 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.ChangeLogEntry;
+import com.omnia.omnia.Entities.ChangeLogSequence;
+import com.omnia.omnia.Entities.ChangeOperation;
+import com.omnia.omnia.Entities.PendingChange;
+import com.omnia.omnia.Repository.AidTypeRepository;
+import com.omnia.omnia.Repository.ChangeLogRepository;
+import com.omnia.omnia.Repository.ChangeLogSequenceRepository;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.Repository.PendingChangeRepository;
+import com.omnia.omnia.Repository.VisitRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Alimente le journal des modifications : change_log_pending dans la transaction de la modification
+ * (et version de la table concernée pour les ETags), puis publication dans change_log après commit.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ChangeLogService {
+
+    private static final int PUBLISH_BATCH_SIZE = 2000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final PendingChangeRepository pendingChangeRepository;
+    private final ChangeLogSequenceRepository changeLogSequenceRepository;
+    private final FamilyRepository familyRepository;
+    private final VisitRepository visitRepository;
+    private final AidTypeRepository aidTypeRepository;
+    private final TableVersionService tableVersionService;
+
+    public void recordUpsert(ChangeEntityType entityType, UUID entityId) {
+        record(entityType, List.of(entityId), ChangeOperation.UPSERT);
+    }
+
+    public void recordUpserts(ChangeEntityType entityType, Collection<UUID> entityIds) {
+        record(entityType, entityIds, ChangeOperation.UPSERT);
+    }
+
+    public void recordDelete(ChangeEntityType entityType, UUID entityId) {
+        record(entityType, List.of(entityId), ChangeOperation.DELETE);
+    }
+
+    /**
+     * Backfill au premier démarrage : les données existantes sont publiées comme UPSERT
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (changeLogRepository.count() > 0 || pendingChangeRepository.count() > 0) {
+            return;
+        }
+        List<UUID> familyIds = familyRepository.findAllIds();
+        List<UUID> visitIds = visitRepository.findAllIds();
+        List<UUID> aidTypeIds = aidTypeRepository.findAllIds();
+        recordUpserts(ChangeEntityType.AID_TYPE, aidTypeIds);
+        recordUpserts(ChangeEntityType.FAMILY, familyIds);
+        recordUpserts(ChangeEntityType.VISIT, visitIds);
+        if (familyIds.size() + visitIds.size() + aidTypeIds.size() > 0) {
+            log.info("change_log initialisé : {} types d'aide, {} familles, {} visites",
+                    aidTypeIds.size(), familyIds.size(), visitIds.size());
+        }
+    }
+
+    /**
+     * Publie les modifications validées dans change_log avec des seq consécutifs. Sous le verrou de
+     * change_log_sequence, seules les transactions déjà validées sont lues : une transaction longue (gros lot,
+     * reconstruction, autre instance) est publiée après coup avec un seq supérieur aux curseurs déjà servis,
+     * au lieu d'un seq attribué à l'insertion et inférieur à ces curseurs.
+     */
+    @Scheduled(fixedDelayString = "${app.sync.publish-interval-ms:500}")
+    public int publish() {
+        ChangeLogSequence sequence = changeLogSequenceRepository.lockSequence().orElse(null);
+        if (sequence == null) {
+            // Premier démarrage : reprise après le dernier seq existant
+            changeLogSequenceRepository.save(ChangeLogSequence.builder()
+                    .id(ChangeLogSequence.SINGLETON_ID)
+                    .lastSeq(changeLogRepository.findLastSeq())
+                    .build());
+            return 0;
+        }
+        List<PendingChange> pending = pendingChangeRepository.findOldest(PageRequest.of(0, PUBLISH_BATCH_SIZE));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        long seq = sequence.getLastSeq();
+        List<ChangeLogEntry> entries = new ArrayList<>(pending.size());
+        for (PendingChange change : pending) {
+            entries.add(ChangeLogEntry.builder()
+                    .seq(++seq)
+                    .entityType(change.getEntityType())
+                    .entityId(change.getEntityId())
+                    .operation(change.getOperation())
+                    .changedAt(change.getChangedAt())
+                    .build());
+        }
+        changeLogRepository.saveAll(entries);
+        pendingChangeRepository.deleteByIdIn(pending.stream().map(PendingChange::getId).collect(Collectors.toList()));
+        sequence.setLastSeq(seq);
+        return entries.size();
+    }
+
+    private void record(ChangeEntityType entityType, Collection<UUID> entityIds, ChangeOperation operation) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        tableVersionService.markChanged(entityType);
+        pendingChangeRepository.saveAll(entityIds.stream()
+                .map(entityId -> PendingChange.builder()
+                        .entityType(entityType)
+                        .entityId(entityId)
+                        .operation(operation)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+}
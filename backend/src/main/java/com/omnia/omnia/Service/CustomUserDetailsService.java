@@ -1,15 +1,20 @@
 package com.omnia.omnia.Service;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.omnia.omnia.Entities.User;
 import com.omnia.omnia.Repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
 
 @Service
@@ -18,15 +23,56 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    @Value("${app.security.user-cache.ttl-seconds:60}")
+    private long userCacheTtlSeconds;
+
+    @Value("${app.security.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    // Cache court des utilisateurs (email -> données d'authentification), invalidé à chaque modification
+    private Cache<String, CachedUser> users;
+
+    private record CachedUser(String email, String password, String role) {
+    }
+
+    @PostConstruct
+    void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(userCacheTtlSeconds))
+                .recordStats()
+                .build();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        CachedUser user = users.get(email, this::loadFromDatabase);
 
+        // Nouvelle instance à chaque appel : Spring Security efface le mot de passe de l'objet retourné après authentification
         return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                user.email(),
+                user.password(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role()))
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Invalidation après le commit de la transaction courante : une requête authentifiée concurrente qui recharge
+     * l'utilisateur avant le commit remettrait sinon en cache l'ancien mot de passe, rôle ou statut
+     */
+    public void evict(String email) {
+        if (email != null) {
+            AfterCommit.run(() -> users.invalidate(email));
+        }
+    }
+
+    public Cache<String, ?> getUserCache() {
+        return users;
+    }
+
+    private CachedUser loadFromDatabase(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return new CachedUser(user.getEmail(), user.getPassword(), user.getRole().name());
+    }
+}
@@ -1,9 +1,19 @@
 package com.omnia.omnia.Service;
 
 import com.omnia.omnia.Entities.*;
+import com.omnia.omnia.Repository.AidMonthlyRollupRepository;
+import com.omnia.omnia.Repository.FamilyDailyRollupRepository;
 import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.Repository.VisitDailyRollupRepository;
 import com.omnia.omnia.Repository.VisitRepository;
+import com.omnia.omnia.dto.AidQuantity;
+import com.omnia.omnia.dto.DashboardStats;
+import com.omnia.omnia.dto.FamilyMapPoint;
+import com.omnia.omnia.dto.MonthlyCount;
+import com.omnia.omnia.dto.PriorityCount;
+import com.omnia.omnia.dto.VisitTypeCount;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,49 +28,57 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DashboardService {
 
+    private static final int MAX_MONTHLY_STATS = 60;
+
     private final FamilyRepository familyRepository;
     private final VisitRepository visitRepository;
-    private final AidTypeService aidTypeService;
+    private final VisitDailyRollupRepository visitDailyRollupRepository;
+    private final FamilyDailyRollupRepository familyDailyRollupRepository;
+    private final AidMonthlyRollupRepository aidMonthlyRollupRepository;
+    private final AidTypeCatalogService aidTypeCatalogService;
 
     /**
      * Statistiques principales du dashboard
+     * (requêtes COUNT groupées et visit_daily_rollup : nombre de requêtes constant, aucune entité chargée)
      */
-    public Map<String, Object> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-
-        // Totaux
-        stats.put("totalFamilies", familyRepository.count());
-        stats.put("totalVisits", visitRepository.count());
-
+    public DashboardStats getDashboardStats() {
         // Visites ce mois
         LocalDate firstDay = LocalDate.now().withDayOfMonth(1);
         LocalDate lastDay = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
-        stats.put("visitsThisMonth", visitRepository.findByVisitDateBetween(firstDay, lastDay).size());
 
         // Familles par priorité
         Map<String, Long> priorityStats = new HashMap<>();
         for (PriorityLevel level : PriorityLevel.values()) {
-            priorityStats.put(level.name(), (long) familyRepository.findByPriorityLevel(level).size());
+            priorityStats.put(level.name(), 0L);
+        }
+        for (PriorityCount count : familyRepository.countGroupByPriorityLevel()) {
+            if (count.getPriorityLevel() != null) {
+                priorityStats.put(count.getPriorityLevel().name(), count.getTotal());
+            }
         }
-        stats.put("familiesByPriority", priorityStats);
-
-        // Dernières visites (5)
-        stats.put("recentVisits", visitRepository.findTop5ByOrderByVisitDateDesc());
-
-        // Familles avec géolocalisation
-        stats.put("familiesWithLocation", familyRepository.findByLatitudeIsNotNullAndLongitudeIsNotNull().size());
 
         // Visites par type
         Map<String, Long> visitsByType = new HashMap<>();
         for (VisitType type : VisitType.values()) {
-            visitsByType.put(type.name(), (long) visitRepository.findByVisitType(type).size());
+            visitsByType.put(type.name(), 0L);
+        }
+        for (VisitTypeCount count : visitDailyRollupRepository.sumGroupByVisitType()) {
+            if (count.getVisitType() != null) {
+                visitsByType.put(count.getVisitType().name(), count.getTotal());
+            }
         }
-        stats.put("visitsByType", visitsByType);
-
-        // Statistiques mensuelles (6 derniers mois)
-        stats.put("monthlyStats", getLast6MonthsStats());
 
-        return stats;
+        return DashboardStats.builder()
+                .totalFamilies(familyRepository.count())
+                .totalVisits(visitRepository.count())
+                .visitsThisMonth(visitDailyRollupRepository.sumBetween(firstDay, lastDay))
+                .familiesByPriority(priorityStats)
+                .recentVisits(visitRepository.findLatestSummaries(PageRequest.of(0, 5)))
+                .familiesWithLocation(familyRepository.countByLatitudeIsNotNullAndLongitudeIsNotNull())
+                .visitsByType(visitsByType)
+                // Statistiques mensuelles (6 derniers mois)
+                .monthlyStats(getMonthlyStats(6))
+                .build();
     }
 
     /**
@@ -77,41 +95,39 @@ public class DashboardService {
         stats.put("headOfFamily", family.getHeadOfFamily());
         stats.put("priorityLevel", family.getPriorityLevel());
 
-        // Visites de cette famille
-        List<Visit> familyVisits = visitRepository.findByFamilyOrderByVisitDateDesc(family);
-        stats.put("totalVisits", familyVisits.size());
+        // Visites de cette famille (COUNT côté SQL)
+        stats.put("totalVisits", visitRepository.countByFamily(family));
 
-        // Dernière visite
-        if (!familyVisits.isEmpty()) {
-            Visit lastVisit = familyVisits.get(0);
-            stats.put("lastVisitDate", lastVisit.getVisitDate());
-            stats.put("lastVisitType", lastVisit.getVisitType());
+        // Dernière visite (colonnes dénormalisées, type lu sur la seule dernière visite)
+        if (family.getLastVisitDate() != null) {
+            stats.put("lastVisitDate", family.getLastVisitDate());
+            visitRepository.findFirstByFamilyOrderByVisitDateDesc(family)
+                    .ifPresent(lastVisit -> stats.put("lastVisitType", lastVisit.getVisitType()));
 
             long daysSince = java.time.temporal.ChronoUnit.DAYS.between(
-                    lastVisit.getVisitDate(), LocalDate.now()
+                    family.getLastVisitDate(), LocalDate.now()
             );
             stats.put("daysSinceLastVisit", daysSince);
         }
 
-        // Prochaine visite prévue
-        familyVisits.stream()
-                .filter(v -> v.getNextVisitDate() != null && v.getNextVisitDate().isAfter(LocalDate.now()))
-                .min(Comparator.comparing(Visit::getNextVisitDate))
-                .ifPresent(visit -> stats.put("nextVisitDate", visit.getNextVisitDate()));
+        // Prochaine visite prévue (éventuellement dépassée)
+        if (family.getNextVisitDue() != null) {
+            stats.put("nextVisitDate", family.getNextVisitDue());
+        }
 
         return stats;
     }
 
     /**
-     * Données pour la carte interactive
+     * Données pour la carte interactive (une seule requête groupée, sans N+1)
      */
     public Map<String, Object> getMapData() {
         Map<String, Object> mapData = new HashMap<>();
 
-        // Familles avec localisation
-        List<Family> families = familyRepository.findByLatitudeIsNotNullAndLongitudeIsNotNull();
+        // Familles avec localisation et nombre de visites
+        List<FamilyMapPoint> points = familyRepository.findMapPoints();
 
-        List<Map<String, Object>> familyPoints = families.stream()
+        List<Map<String, Object>> familyPoints = points.stream()
                 .map(family -> {
                     Map<String, Object> point = new HashMap<>();
                     point.put("id", family.getId());
@@ -119,19 +135,15 @@ public class DashboardService {
                     point.put("longitude", family.getLongitude());
                     point.put("title", family.getHeadOfFamily());
                     point.put("description", "Famille " + family.getReference());
-                    point.put("priority", family.getPriorityLevel().name());
+                    point.put("priority", family.getPriorityLevel() != null ? family.getPriorityLevel().name() : null);
                     point.put("familySize", family.getFamilySize());
-
-                    // Nombre de visites
-                    int visitCount = visitRepository.findByFamilyOrderByVisitDateDesc(family).size();
-                    point.put("visitCount", visitCount);
-
+                    point.put("visitCount", family.getVisitCount());
                     return point;
                 })
                 .collect(Collectors.toList());
 
         mapData.put("families", familyPoints);
-        mapData.put("totalFamiliesOnMap", families.size());
+        mapData.put("totalFamiliesOnMap", points.size());
 
         // Visites avec localisation (si disponibles)
         // Note: Ajoutez cette méthode dans VisitRepository si besoin
@@ -141,60 +153,133 @@ public class DashboardService {
     }
 
     /**
-     * Statistiques des types d'aide
+     * Statistiques des aides distribuées (lues dans aid_monthly_rollup : aucune lecture de aid_distribution).
+     * Catégorie, nom et unité viennent du catalogue des types d'aide en mémoire.
      */
     public Map<String, Object> getAidStats() {
         Map<String, Object> stats = new HashMap<>();
+        AidTypeCatalog catalog = aidTypeCatalogService.snapshot();
+
+        stats.put("totalAidTypes", catalog.size());
+        stats.put("activeAidTypes", catalog.active().size());
+
+        // Par catégorie et par type d'aide (tout l'historique)
+        Map<String, Long> distributionsByCategory = emptyCategoryTotals();
+        Map<String, Long> quantityByCategory = emptyCategoryTotals();
+        List<Map<String, Object>> byAidType = new ArrayList<>();
+        for (AidQuantity sum : aidMonthlyRollupRepository.sumGroupByAidType()) {
+            Optional<AidType> aidType = catalog.byId(sum.getAidTypeId());
+            String category = categoryOf(aidType);
+            distributionsByCategory.merge(category, sum.getDistributions(), Long::sum);
+            quantityByCategory.merge(category, sum.getQuantity(), Long::sum);
+
+            Map<String, Object> row = new HashMap<>();
+            row.put("aidTypeId", sum.getAidTypeId());
+            row.put("name", aidType.map(AidType::getName).orElse(null));
+            row.put("category", category);
+            row.put("unit", aidType.map(AidType::getUnit).orElse(null));
+            row.put("quantity", sum.getQuantity());
+            row.put("distributions", sum.getDistributions());
+            byAidType.add(row);
+        }
+        byAidType.sort(Comparator.comparing((Map<String, Object> row) -> (Long) row.get("quantity")).reversed());
 
-        List<AidType> aidTypes = aidTypeService.findAll();
-        stats.put("totalAidTypes", aidTypes.size());
-
-        // Distribution par catégorie (mock - à adapter)
-        Map<String, Integer> distribution = new HashMap<>();
-        distribution.put("FOOD", 45);
-        distribution.put("MEDICINE", 32);
-        distribution.put("CLOTHING", 28);
-        distribution.put("OTHER", 15);
-
-        stats.put("aidDistribution", distribution);
+        stats.put("aidDistribution", distributionsByCategory);
+        stats.put("quantityByCategory", quantityByCategory);
+        stats.put("byAidType", byAidType);
 
-        // Types d'aide actifs
-        List<AidType> activeTypes = aidTypeService.findActive();
-        stats.put("activeAidTypes", activeTypes.size());
+        // Par priorité de la famille
+        Map<String, Map<String, Long>> byPriority = new HashMap<>();
+        for (PriorityLevel level : PriorityLevel.values()) {
+            byPriority.put(level.name(), emptyCategoryTotals());
+        }
+        for (AidQuantity sum : aidMonthlyRollupRepository.sumGroupByPriorityAndAidType()) {
+            byPriority.get(sum.getPriorityLevel().name())
+                    .merge(categoryOf(catalog.byId(sum.getAidTypeId())), sum.getQuantity(), Long::sum);
+        }
+        stats.put("quantityByPriority", byPriority);
 
+        stats.put("monthlyStats", getLast6MonthsAidStats(catalog));
         return stats;
     }
 
     /**
-     * Statistiques des 6 derniers mois
+     * Quantités distribuées par mois et par catégorie (6 derniers mois, une seule requête)
      */
-    private List<Map<String, Object>> getLast6MonthsStats() {
-        List<Map<String, Object>> monthlyStats = new ArrayList<>();
+    private List<Map<String, Object>> getLast6MonthsAidStats(AidTypeCatalog catalog) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM yyyy", Locale.FRENCH);
+        YearMonth firstMonth = YearMonth.now().minusMonths(5);
+
+        Map<YearMonth, Map<String, Long>> quantities = new HashMap<>();
+        Map<YearMonth, Long> distributions = new HashMap<>();
+        for (AidQuantity sum : aidMonthlyRollupRepository.sumGroupByMonthAndAidType(
+                firstMonth.atDay(1), YearMonth.now().atDay(1))) {
+            YearMonth month = YearMonth.from(sum.getMonth());
+            quantities.computeIfAbsent(month, m -> emptyCategoryTotals())
+                    .merge(categoryOf(catalog.byId(sum.getAidTypeId())), sum.getQuantity(), Long::sum);
+            distributions.merge(month, sum.getDistributions(), Long::sum);
+        }
 
+        List<Map<String, Object>> monthlyStats = new ArrayList<>();
         for (int i = 5; i >= 0; i--) {
             YearMonth yearMonth = YearMonth.now().minusMonths(i);
-            LocalDate start = yearMonth.atDay(1);
-            LocalDate end = yearMonth.atEndOfMonth();
-
             Map<String, Object> monthStat = new HashMap<>();
             monthStat.put("month", yearMonth.format(formatter));
-            monthStat.put("totalVisits", visitRepository.findByVisitDateBetween(start, end).size());
-            monthStat.put("newFamilies", estimateNewFamilies(start, end));
-
+            monthStat.put("quantityByCategory", quantities.getOrDefault(yearMonth, emptyCategoryTotals()));
+            monthStat.put("distributions", distributions.getOrDefault(yearMonth, 0L));
             monthlyStats.add(monthStat);
         }
-
         return monthlyStats;
     }
 
+    private Map<String, Long> emptyCategoryTotals() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (AidCategory category : AidCategory.values()) {
+            totals.put(category.name(), 0L);
+        }
+        return totals;
+    }
+
+    // Type d'aide supprimé ou sans catégorie : compté dans OTHER
+    private String categoryOf(Optional<AidType> aidType) {
+        return aidType.map(AidType::getCategory).orElse(AidCategory.OTHER).name();
+    }
+
     /**
-     * Estimation des nouvelles familles (méthode simplifiée)
+     * Statistiques mensuelles des N derniers mois (lues dans visit_daily_rollup et family_daily_rollup :
+     * une requête groupée par agrégat, quel que soit N ou la taille de l'historique)
      */
-    private int estimateNewFamilies(LocalDate start, LocalDate end) {
-        // Pour le hackathon, on peut utiliser une estimation
-        // En production, il faudrait un champ createdAt dans Family
-        return (int) (Math.random() * 5) + 1; // 1-5 nouvelles familles
+    public List<Map<String, Object>> getMonthlyStats(int months) {
+        if (months < 1 || months > MAX_MONTHLY_STATS) {
+            throw new RuntimeException("months must be between 1 and " + MAX_MONTHLY_STATS);
+        }
+        List<Map<String, Object>> monthlyStats = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM yyyy", Locale.FRENCH);
+
+        YearMonth firstMonth = YearMonth.now().minusMonths(months - 1);
+        LocalDate start = firstMonth.atDay(1);
+        LocalDate end = YearMonth.now().atEndOfMonth();
+        Map<YearMonth, Long> visitsPerMonth = new HashMap<>();
+        for (MonthlyCount count : visitDailyRollupRepository.sumGroupByMonth(start, end)) {
+            visitsPerMonth.put(YearMonth.of(count.getYear(), count.getMonth()), count.getTotal());
+        }
+        Map<YearMonth, Long> newFamiliesPerMonth = new HashMap<>();
+        for (MonthlyCount count : familyDailyRollupRepository.sumGroupByMonth(start, end)) {
+            newFamiliesPerMonth.put(YearMonth.of(count.getYear(), count.getMonth()), count.getTotal());
+        }
+
+        for (int i = months - 1; i >= 0; i--) {
+            YearMonth yearMonth = YearMonth.now().minusMonths(i);
+
+            Map<String, Object> monthStat = new HashMap<>();
+            monthStat.put("month", yearMonth.format(formatter));
+            monthStat.put("totalVisits", visitsPerMonth.getOrDefault(yearMonth, 0L));
+            monthStat.put("newFamilies", newFamiliesPerMonth.getOrDefault(yearMonth, 0L));
+
+            monthlyStats.add(monthStat);
+        }
+
+        return monthlyStats;
     }
 
     /**
@@ -208,16 +293,16 @@ public class DashboardService {
 
         // Visites aujourd'hui
         LocalDate today = LocalDate.now();
-        indicators.put("visitsToday", visitRepository.findByVisitDate(today).size());
+        indicators.put("visitsToday", visitDailyRollupRepository.sumBetween(today, today));
 
         // Familles haute priorité
         indicators.put("highPriorityFamilies",
-                familyRepository.findByPriorityLevel(PriorityLevel.High).size());
+                familyRepository.countByPriorityLevel(PriorityLevel.High));
 
         // Visites à venir (dans les 7 prochains jours)
         LocalDate nextWeek = today.plusDays(7);
         indicators.put("upcomingVisits",
-                visitRepository.findByNextVisitDateBetween(today, nextWeek).size());
+                familyRepository.countByNextVisitDueBetween(today, nextWeek));
 
         return indicators;
     }
@@ -0,0 +1,334 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.AidCategory;
+import com.omnia.omnia.Entities.AidType;
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Entities.Role;
+import com.omnia.omnia.Entities.VisitType;
+import com.omnia.omnia.Repository.AidTypeRepository;
+import com.omnia.omnia.dto.DatasetSeedReport;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jeu de données synthétique déterministe pour les tests à l'échelle (même graine et même date de référence
+ * = mêmes lignes, identifiants compris) : utilisateurs de chaque rôle, familles réparties en quartiers
+ * autour de Tunis, visites avec distributions d'aide et besoins identifiés.
+ * Insertion en lots JDBC, sans passer par les entités, et publication dans le journal des modifications
+ * (synchronisation complète des clients hors-ligne). Les agrégats, la planification et les index en mémoire
+ * sont ensuite construits par leurs backfills au démarrage (voir DatasetSeedRunner).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetSeeder {
+
+    public static final String EMAIL_DOMAIN = "seed.omnia.tn";
+    public static final String REFERENCE_PREFIX = "FAM-S";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int FAMILIES_PER_CHUNK = 500;
+
+    // Quartiers du Grand Tunis : latitude, longitude, dispersion (degrés), poids
+    private static final double[][] DISTRICTS = {
+            {36.7990, 10.1710, 0.006, 3},   // Médina
+            {36.8360, 10.1020, 0.010, 5},   // Ettadhamen
+            {36.7750, 10.1100, 0.012, 4},   // Sidi Hassine
+            {36.8660, 10.1930, 0.015, 3},   // Ariana
+            {36.7530, 10.2220, 0.015, 3},   // Ben Arous
+            {36.8080, 10.0970, 0.012, 2},   // Manouba
+            {36.8780, 10.3250, 0.010, 1},   // La Marsa
+    };
+    private static final String[] DISTRICT_NAMES = {"Médina", "Ettadhamen", "Sidi Hassine", "Ariana", "Ben Arous", "Manouba", "La Marsa"};
+
+    private static final String[] FIRST_NAMES = {"Mohamed", "Ahmed", "Youssef", "Ali", "Hamza", "Karim", "Fatma", "Amira",
+            "Salma", "Leila", "Nour", "Mariem", "Sana", "Hedi", "Mounir", "Rim"};
+    private static final String[] LAST_NAMES = {"Ben Salah", "Trabelsi", "Gharbi", "Jlassi", "Hammami", "Bouazizi", "Mejri",
+            "Dridi", "Khelifi", "Ayari", "Ben Ammar", "Sassi", "Chebbi", "Mansouri"};
+    private static final String[] STREETS = {"rue de la République", "avenue Habib Bourguiba", "rue de Marseille",
+            "rue d'Alger", "avenue de la Liberté", "rue Ibn Khaldoun", "impasse des Oliviers"};
+    private static final String[] NEEDS = {"Alimentation", "Hygiène", "Scolarité des enfants", "Soins médicaux",
+            "Logement insalubre", "Vêtements d'hiver", "Recherche d'emploi", "Médicaments chroniques"};
+    private static final String[] OBSERVATIONS = {"Visite à domicile, situation stable.",
+            "Famille absente, voisin informé du passage.", "Situation dégradée depuis la dernière visite.",
+            "Enfants scolarisés, besoin de fournitures.", "Personne âgée seule, suivi médical à prévoir."};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AidTypeService aidTypeService;
+    private final AidTypeRepository aidTypeRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ChangeLogService changeLogService;
+    private final EntityManager entityManager;
+
+    public boolean isEmpty() {
+        Long families = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM family", Long.class);
+        return families == null || families == 0;
+    }
+
+    @Transactional
+    public DatasetSeedReport seed(int familyCount, int visitsPerFamily, int userCount, long randomSeed,
+                                  LocalDate anchorDate, String password) {
+        if (familyCount < 0 || visitsPerFamily < 0 || userCount < 0) {
+            throw new RuntimeException("Seed sizes must be positive or zero");
+        }
+        long start = System.nanoTime();
+        Random random = new Random(randomSeed);
+        LocalDate today = anchorDate != null ? anchorDate : LocalDate.now();
+
+        aidTypeService.initializeDefaultAidTypes();
+        List<AidType> aidTypes = aidTypeRepository.findAll();
+        aidTypes.sort((a, b) -> a.getName().compareTo(b.getName()));
+
+        List<byte[]> volunteers = seedUsers(userCount, random, today, password);
+
+        Batch families = new Batch("INSERT INTO family (id, reference, head_of_family, phone, address, latitude, longitude, " +
+                "family_size, needs_description, priority_level, notes, created_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)");
+        Batch frequentAidTypes = new Batch("INSERT INTO family_frequent_aid_types (family_id, aid_type_id) VALUES (?, ?)");
+        Batch visits = new Batch("INSERT INTO visits (id, client_id, family_id, volunteer_id, visit_date, visit_type, observations, " +
+                "location_lat, location_lng, next_visit_date, synced, recorded_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, 0)");
+        Batch distributions = new Batch("INSERT INTO aid_distribution (id, visit_id, aid_type_id, description, quantity, unit, " +
+                "expiration_date, distributed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        Batch needs = new Batch("INSERT INTO visit_identified_needs (visit_id, need_description) VALUES (?, ?)");
+
+        List<UUID> familyIds = new ArrayList<>(FAMILIES_PER_CHUNK);
+        List<UUID> visitIds = new ArrayList<>(FAMILIES_PER_CHUNK * visitsPerFamily);
+        for (int f = 0; f < familyCount; f++) {
+            UUID familyUuid = uuid(random);
+            familyIds.add(familyUuid);
+            byte[] familyId = bytes(familyUuid);
+            PriorityLevel priority = priority(random);
+            int district = district(random);
+            boolean located = random.nextInt(20) != 0;
+            double latitude = DISTRICTS[district][0] + random.nextGaussian() * DISTRICTS[district][2];
+            double longitude = DISTRICTS[district][1] + random.nextGaussian() * DISTRICTS[district][2];
+            LocalDateTime createdAt = today.minusDays(365 + random.nextInt(365)).atTime(9 + random.nextInt(8), random.nextInt(60));
+
+            families.add(familyId,
+                    String.format("%s%06d", REFERENCE_PREFIX, f),
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    String.valueOf((2 + random.nextInt(8)) * 10_000_000 + random.nextInt(10_000_000)),
+                    (1 + random.nextInt(150)) + " " + STREETS[random.nextInt(STREETS.length)] + ", " + DISTRICT_NAMES[district],
+                    located ? latitude : null,
+                    located ? longitude : null,
+                    1 + random.nextInt(9),
+                    NEEDS[random.nextInt(NEEDS.length)] + ", " + NEEDS[random.nextInt(NEEDS.length)].toLowerCase(),
+                    priority.name(),
+                    random.nextInt(4) == 0 ? "Famille orientée par l'assistante sociale." : null,
+                    createdAt);
+            int frequent = aidTypes.isEmpty() ? 0 : 1 + random.nextInt(2);
+            int firstFrequent = aidTypes.isEmpty() ? 0 : random.nextInt(aidTypes.size());
+            for (int a = 0; a < frequent; a++) {
+                frequentAidTypes.add(familyId, bytes(aidTypes.get((firstFrequent + a) % aidTypes.size()).getId()));
+            }
+
+            // Visites réparties sur les 12 derniers mois, la première est l'évaluation initiale
+            LocalDate visitDate = today.minusDays(365);
+            for (int v = 0; v < visitsPerFamily; v++) {
+                visitDate = visitDate.plusDays(1 + random.nextInt(Math.max(1, 2 * 365 / Math.max(1, visitsPerFamily))));
+                if (visitDate.isAfter(today)) {
+                    visitDate = today;
+                }
+                UUID visitUuid = uuid(random);
+                visitIds.add(visitUuid);
+                byte[] visitId = bytes(visitUuid);
+                VisitType type = v == 0 ? VisitType.INITIAL_ASSESSMENT : visitType(priority, random);
+                visits.add(visitId,
+                        bytes(uuid(random)),
+                        familyId,
+                        volunteers.isEmpty() ? null : volunteers.get(random.nextInt(volunteers.size())),
+                        visitDate,
+                        type.name(),
+                        OBSERVATIONS[random.nextInt(OBSERVATIONS.length)],
+                        located ? latitude + random.nextGaussian() * 0.0002 : null,
+                        located ? longitude + random.nextGaussian() * 0.0002 : null,
+                        visitDate.plusDays(nextVisitDelay(priority)),
+                        visitDate.atTime(10 + random.nextInt(8), random.nextInt(60)));
+
+                int distributionCount = aidTypes.isEmpty() ? 0 : random.nextInt(4);
+                for (int d = 0; d < distributionCount; d++) {
+                    AidType aidType = aidTypes.get(random.nextInt(aidTypes.size()));
+                    distributions.add(bytes(uuid(random)),
+                            visitId,
+                            bytes(aidType.getId()),
+                            null,
+                            (aidType.getDefaultQuantity() != null ? aidType.getDefaultQuantity() : 1) * (1 + random.nextInt(3)),
+                            aidType.getUnit(),
+                            perishable(aidType) ? visitDate.plusDays(30 + random.nextInt(335)) : null,
+                            visitDate.atTime(11, random.nextInt(60)));
+                }
+                int needCount = random.nextInt(3);
+                for (int n = 0; n < needCount; n++) {
+                    needs.add(visitId, NEEDS[random.nextInt(NEEDS.length)]);
+                }
+            }
+
+            // Les familles d'abord (clés étrangères), par tranches pour borner la mémoire
+            if ((f + 1) % FAMILIES_PER_CHUNK == 0) {
+                flush(familyIds, visitIds, families, frequentAidTypes, visits, distributions, needs);
+            }
+        }
+        flush(familyIds, visitIds, families, frequentAidTypes, visits, distributions, needs);
+
+        DatasetSeedReport report = DatasetSeedReport.builder()
+                .users(userCount)
+                .families(families.total)
+                .visits(visits.total)
+                .aidDistributions(distributions.total)
+                .identifiedNeeds(needs.total)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+        log.info("Jeu de données généré (graine {}, référence {}) : {}", randomSeed, today, report);
+        return report;
+    }
+
+    /**
+     * Utilisateurs : 5 % d'administrateurs, 15 % de coordinateurs, le reste bénévoles (au moins un de chaque rôle).
+     * Emails : admin{n}@, coordinateur{n}@, benevole{n}@seed.omnia.tn ; un seul hachage pour tous les mots de passe.
+     */
+    private List<byte[]> seedUsers(int userCount, Random random, LocalDate today, String password) {
+        List<byte[]> volunteers = new ArrayList<>();
+        if (userCount == 0) {
+            return volunteers;
+        }
+        int admins = Math.max(1, userCount * 5 / 100);
+        int coordinators = Math.max(1, userCount * 15 / 100);
+        String hash = passwordEncoder.encode(password);
+
+        Batch users = new Batch("INSERT INTO users (id, first_name, last_name, email, phone, password, role, active, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, ?)");
+        for (int u = 0; u < userCount; u++) {
+            Role role = u < admins ? Role.Admin : u < admins + coordinators ? Role.Coordinator : Role.Volunteer;
+            int index = role == Role.Admin ? u : role == Role.Coordinator ? u - admins : u - admins - coordinators;
+            byte[] id = bytes(uuid(random));
+            if (role == Role.Volunteer) {
+                volunteers.add(id);
+            }
+            users.add(id,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    email(role, index),
+                    String.valueOf(50_000_000 + random.nextInt(10_000_000)),
+                    hash,
+                    role.name(),
+                    today.minusDays(random.nextInt(700)).atStartOfDay());
+        }
+        users.flush();
+        return volunteers;
+    }
+
+    public static String email(Role role, int index) {
+        String prefix = switch (role) {
+            case Admin -> "admin";
+            case Coordinator -> "coordinateur";
+            case Volunteer -> "benevole";
+        };
+        return prefix + index + "@" + EMAIL_DOMAIN;
+    }
+
+    private void flush(List<UUID> familyIds, List<UUID> visitIds, Batch... batches) {
+        for (Batch batch : batches) {
+            batch.flush();
+        }
+        changeLogService.recordUpserts(ChangeEntityType.FAMILY, familyIds);
+        changeLogService.recordUpserts(ChangeEntityType.VISIT, visitIds);
+        familyIds.clear();
+        visitIds.clear();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static PriorityLevel priority(Random random) {
+        int draw = random.nextInt(10);
+        return draw < 2 ? PriorityLevel.High : draw < 7 ? PriorityLevel.Medium : PriorityLevel.Low;
+    }
+
+    private static int district(Random random) {
+        double total = 0;
+        for (double[] district : DISTRICTS) {
+            total += district[3];
+        }
+        double draw = random.nextDouble() * total;
+        for (int d = 0; d < DISTRICTS.length; d++) {
+            draw -= DISTRICTS[d][3];
+            if (draw < 0) {
+                return d;
+            }
+        }
+        return DISTRICTS.length - 1;
+    }
+
+    private static VisitType visitType(PriorityLevel priority, Random random) {
+        int draw = random.nextInt(20);
+        if (draw < (priority == PriorityLevel.High ? 3 : 1)) {
+            return VisitType.EMERGENCY;
+        }
+        return draw < 8 ? VisitType.FOLLOW_UP : VisitType.REGULAR;
+    }
+
+    private static long nextVisitDelay(PriorityLevel priority) {
+        return switch (priority) {
+            case High -> 14;
+            case Medium -> 30;
+            case Low -> 60;
+        };
+    }
+
+    private static boolean perishable(AidType aidType) {
+        return aidType.getCategory() == AidCategory.FOOD || aidType.getCategory() == AidCategory.MEDICINE;
+    }
+
+    // UUID v4 tiré du générateur déterministe
+    private static UUID uuid(Random random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    // Représentation binaire (16 octets) des colonnes UUID
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Lignes d'un INSERT accumulées puis envoyées par lots de BATCH_SIZE (flush dans l'ordre des clés étrangères)
+     */
+    private class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+        private int total;
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            total++;
+        }
+
+        void flush() {
+            for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+            }
+            rows.clear();
+        }
+    }
+}
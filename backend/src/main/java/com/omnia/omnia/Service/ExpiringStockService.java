@@ -0,0 +1,169 @@
+package com.omnia.omnia.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnia.omnia.Entities.AidCategory;
+import com.omnia.omnia.Entities.AidType;
+import com.omnia.omnia.Repository.AidDistributionRepository;
+import com.omnia.omnia.dto.ExpiringAid;
+import com.omnia.omnia.dto.ExpiringAidRow;
+import com.omnia.omnia.dto.ExpiringAidTotal;
+import com.omnia.omnia.dto.ExpiringAidTypeTotal;
+import com.omnia.omnia.dto.ExpiringStockReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Aides distribuées arrivant à expiration (nourriture, médicaments...).
+ * Requêtes par plage sur l'index (expiration_date, aid_type_id) : le coût dépend du nombre de lots
+ * concernés et non de la taille de la table aid_distribution.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class ExpiringStockService {
+
+    private static final int MAX_WITHIN_DAYS = 365;
+
+    private final AidDistributionRepository aidDistributionRepository;
+    private final AidTypeCatalogService aidTypeCatalogService;
+    private final ObjectMapper objectMapper;
+
+    // Horizon du scan quotidien, en jours
+    @Value("${app.aid.expiring.scan-days:30}")
+    private int scanDays;
+
+    private volatile ExpiringStockReport lastReport;
+
+    /**
+     * Validation des paramètres, à appeler avant d'ouvrir le flux de réponse
+     */
+    public void checkExpiringRequest(int withinDays, String category) {
+        if (withinDays < 0 || withinDays > MAX_WITHIN_DAYS) {
+            throw new RuntimeException("withinDays must be between 0 and " + MAX_WITHIN_DAYS);
+        }
+        if (category != null) {
+            parseCategory(category);
+        }
+    }
+
+    /**
+     * Lots expirant d'ici withinDays jours (aujourd'hui inclus), en NDJSON trié par date d'expiration
+     */
+    public void streamExpiring(int withinDays, String category, OutputStream out) throws IOException {
+        checkExpiringRequest(withinDays, category);
+        LocalDate today = LocalDate.now();
+        LocalDate to = today.plusDays(withinDays);
+        AidTypeCatalog catalog = aidTypeCatalogService.snapshot();
+
+        try (Stream<ExpiringAidRow> rows = category == null
+                ? aidDistributionRepository.streamExpiringBetween(today, to)
+                : streamCategory(today, to, catalog.byCategory(parseCategory(category)))) {
+            Iterator<ExpiringAidRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(toExpiringAid(iterator.next(), today, catalog)));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Scan quotidien : totaux par type d'aide sur l'horizon configuré, gardés en mémoire pour le dashboard
+     */
+    @Scheduled(cron = "${app.aid.expiring.scan-cron:0 0 6 * * *}")
+    public ExpiringStockReport scan() {
+        LocalDate today = LocalDate.now();
+        LocalDate to = today.plusDays(scanDays);
+        AidTypeCatalog catalog = aidTypeCatalogService.snapshot();
+
+        List<ExpiringAidTypeTotal> totals = aidDistributionRepository.sumExpiringBetween(today, to).stream()
+                .map(total -> toTypeTotal(total, catalog))
+                .sorted(Comparator.comparing(ExpiringAidTypeTotal::getEarliestExpiration))
+                .collect(Collectors.toList());
+        ExpiringStockReport report = ExpiringStockReport.builder()
+                .scannedAt(LocalDateTime.now())
+                .from(today)
+                .to(to)
+                .distributions(totals.stream().mapToLong(ExpiringAidTypeTotal::getDistributions).sum())
+                .byAidType(totals)
+                .build();
+        lastReport = report;
+
+        if (report.getDistributions() > 0) {
+            log.info("Aides expirant d'ici le {} : {} distributions, {} types d'aide",
+                    to, report.getDistributions(), totals.size());
+        }
+        return report;
+    }
+
+    public ExpiringStockReport getLastReport() {
+        ExpiringStockReport report = lastReport;
+        return report != null ? report : scan();
+    }
+
+    private Stream<ExpiringAidRow> streamCategory(LocalDate from, LocalDate to, List<AidType> aidTypes) {
+        if (aidTypes.isEmpty()) {
+            return Stream.empty();
+        }
+        return aidDistributionRepository.streamExpiringBetween(from, to,
+                aidTypes.stream().map(AidType::getId).collect(Collectors.toList()));
+    }
+
+    private ExpiringAid toExpiringAid(ExpiringAidRow row, LocalDate today, AidTypeCatalog catalog) {
+        Optional<AidType> aidType = catalog.byId(row.getAidTypeId());
+        return ExpiringAid.builder()
+                .id(row.getId())
+                .expirationDate(row.getExpirationDate())
+                .daysLeft(ChronoUnit.DAYS.between(today, row.getExpirationDate()))
+                .aidTypeId(row.getAidTypeId())
+                .aidTypeName(aidType.map(AidType::getName).orElse(null))
+                .category(aidType.map(AidType::getCategory).orElse(null))
+                .quantity(row.getQuantity())
+                .unit(row.getUnit() != null ? row.getUnit() : aidType.map(AidType::getUnit).orElse(null))
+                .description(row.getDescription())
+                .visitId(row.getVisitId())
+                .familyId(row.getFamilyId())
+                .familyReference(row.getFamilyReference())
+                .headOfFamily(row.getHeadOfFamily())
+                .build();
+    }
+
+    private ExpiringAidTypeTotal toTypeTotal(ExpiringAidTotal total, AidTypeCatalog catalog) {
+        Optional<AidType> aidType = catalog.byId(total.getAidTypeId());
+        return ExpiringAidTypeTotal.builder()
+                .aidTypeId(total.getAidTypeId())
+                .aidTypeName(aidType.map(AidType::getName).orElse(null))
+                .category(aidType.map(AidType::getCategory).orElse(null))
+                .unit(aidType.map(AidType::getUnit).orElse(null))
+                .distributions(total.getDistributions())
+                .quantity(total.getQuantity() != null ? total.getQuantity() : 0)
+                .earliestExpiration(total.getEarliestExpiration())
+                .build();
+    }
+
+    private AidCategory parseCategory(String category) {
+        try {
+            return AidCategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid category: " + category);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.dto.FamilyDue;
+import com.omnia.omnia.dto.FamilyDueRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * File des visites à faire : familles triées par (prochaine visite prévue, priorité).
+ * Chargée au démarrage par VisitScheduleService après le calcul des colonnes dénormalisées,
+ * puis tenue à jour après commit. La liste de travail est lue en tête de file, sans requête.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FamilyDueQueueService {
+
+    public static final int MAX_LIMIT = 1000;
+
+    // À date égale : priorité haute d'abord (famille sans priorité traitée comme Medium)
+    private static final Comparator<DueEntry> ORDER = Comparator
+            .comparing(DueEntry::nextVisitDue)
+            .thenComparingInt(DueEntry::priorityRank)
+            .thenComparing(DueEntry::familyId);
+
+    private final FamilyRepository familyRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeSet<DueEntry> queue = new TreeSet<>(ORDER);
+    private final Map<UUID, DueEntry> entries = new HashMap<>();
+
+    public void rebuild() {
+        List<FamilyDueRow> rows = familyRepository.findDueRows();
+        lock.writeLock().lock();
+        try {
+            queue.clear();
+            entries.clear();
+            for (FamilyDueRow row : rows) {
+                add(new DueEntry(row.getId(), row.getReference(), row.getHeadOfFamily(), row.getPhone(),
+                        row.getAddress(), row.getPriorityLevel(), row.getLastVisitDate(), row.getNextVisitDue()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("File des visites à faire chargée : {} familles planifiées", rows.size());
+    }
+
+    public void index(Family family) {
+        DueEntry entry = new DueEntry(family.getId(), family.getReference(), family.getHeadOfFamily(),
+                family.getPhone(), family.getAddress(), family.getPriorityLevel(),
+                family.getLastVisitDate(), family.getNextVisitDue());
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(entry.familyId());
+                if (entry.nextVisitDue() != null) {
+                    add(entry);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(UUID familyId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(familyId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Familles dont la prochaine visite est prévue au plus tard le jour until (retards inclus),
+     * dans l'ordre de la file
+     */
+    public List<FamilyDue> due(LocalDate until, int limit) {
+        LocalDate today = LocalDate.now();
+        List<FamilyDue> result = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            for (DueEntry entry : queue) {
+                if (result.size() >= limit || entry.nextVisitDue().isAfter(until)) {
+                    break;
+                }
+                result.add(FamilyDue.builder()
+                        .familyId(entry.familyId())
+                        .reference(entry.reference())
+                        .headOfFamily(entry.headOfFamily())
+                        .phone(entry.phone())
+                        .address(entry.address())
+                        .priorityLevel(entry.priorityLevel())
+                        .lastVisitDate(entry.lastVisitDate())
+                        .nextVisitDue(entry.nextVisitDue())
+                        .daysUntilDue(ChronoUnit.DAYS.between(today, entry.nextVisitDue()))
+                        .build());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(DueEntry entry) {
+        entries.put(entry.familyId(), entry);
+        queue.add(entry);
+    }
+
+    private void delete(UUID familyId) {
+        DueEntry previous = entries.remove(familyId);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
+
+    private record DueEntry(UUID familyId, String reference, String headOfFamily, String phone, String address,
+                            PriorityLevel priorityLevel, LocalDate lastVisitDate, LocalDate nextVisitDue) {
+
+        int priorityRank() {
+            return (priorityLevel != null ? priorityLevel : PriorityLevel.Medium).ordinal();
+        }
+    }
+}
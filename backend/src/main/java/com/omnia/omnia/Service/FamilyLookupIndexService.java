@@ -0,0 +1,416 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.dto.FamilyLookupDocument;
+import com.omnia.omnia.dto.FamilyLookupMatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recherche approchée des familles par nom du chef de famille et téléphone.
+ * Index en mémoire : trigrammes du nom, trigrammes des chiffres du téléphone et clé phonétique
+ * de chaque mot du nom (translittérations : Mohamed / Mhamed / Mohammed, Youssef / Youcef...).
+ * Les documents sont numérotés (ordinal) et les listes de postings sont des tableaux d'int.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FamilyLookupIndexService {
+
+    private static final double MIN_SCORE = 0.3;
+    private static final double DUPLICATE_SCORE = 0.75;
+    private static final double PHONETIC_BONUS = 0.25;
+    private static final int MIN_PHONE_DIGITS = 4;
+    private static final int LOCAL_PHONE_DIGITS = 8;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final FamilyRepository familyRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documents, indexés par ordinal
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private String[] references = new String[INITIAL_CAPACITY];
+    private String[] headNames = new String[INITIAL_CAPACITY];
+    private String[] phones = new String[INITIAL_CAPACITY];
+    private int[] nameTrigramCounts = new int[INITIAL_CAPACITY];
+    private final BitSet deleted = new BitSet();
+    private int size;
+    private int deletedCount;
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<Long, IntList> nameTrigrams = new HashMap<>();
+    private final Map<Long, IntList> phoneTrigrams = new HashMap<>();
+    private final Map<String, IntList> phoneticKeys = new HashMap<>();
+
+    /**
+     * Chargement sous le verrou d'écriture : une mise à jour validée pendant la lecture (index() après commit)
+     * attend la fin du chargement au lieu d'être effacée par clear()
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<FamilyLookupDocument> documents;
+        lock.writeLock().lock();
+        try {
+            documents = familyRepository.findLookupDocuments();
+            clear();
+            for (FamilyLookupDocument document : documents) {
+                add(document.getId(), document.getReference(), document.getHeadOfFamily(), document.getPhone());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de recherche approchée chargé : {} familles, {} trigrammes", documents.size(), nameTrigrams.size());
+    }
+
+    public void index(Family family) {
+        UUID id = family.getId();
+        String reference = family.getReference();
+        String headOfFamily = family.getHeadOfFamily();
+        String phone = family.getPhone();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (unchanged(id, reference, headOfFamily, phone)) {
+                    return;
+                }
+                delete(id);
+                add(id, reference, headOfFamily, phone);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(UUID familyId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(familyId);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Meilleures correspondances approchées pour un texte libre (nom et/ou numéro de téléphone)
+     */
+    public List<FamilyLookupMatch> lookup(String query, int limit) {
+        return lookup(query, query, limit, MIN_SCORE);
+    }
+
+    /**
+     * Familles probablement identiques (nom très proche ou même téléphone), pour la détection de doublons
+     */
+    public List<FamilyLookupMatch> findPossibleDuplicates(String headOfFamily, String phone, int limit) {
+        return lookup(headOfFamily, phone, limit, DUPLICATE_SCORE);
+    }
+
+    private List<FamilyLookupMatch> lookup(String nameQuery, String phoneQuery, int limit, double minScore) {
+        Set<Long> queryNameTrigrams = trigrams(nameText(nameQuery));
+        Set<Long> queryPhoneTrigrams = Collections.emptySet();
+        String queryDigits = phoneDigits(phoneQuery);
+        if (queryDigits.length() >= MIN_PHONE_DIGITS) {
+            queryPhoneTrigrams = trigrams(queryDigits);
+        }
+        Set<String> queryPhoneticKeys = phoneticKeys(nameText(nameQuery));
+        if (queryNameTrigrams.isEmpty() && queryPhoneTrigrams.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] nameHits = new int[size];
+            int[] phoneHits = new int[size];
+            BitSet phoneticHits = new BitSet(size);
+            IntList touched = new IntList();
+
+            for (Long trigram : queryNameTrigrams) {
+                collect(nameTrigrams.get(trigram), nameHits, phoneHits, touched, nameHits);
+            }
+            for (Long trigram : queryPhoneTrigrams) {
+                collect(phoneTrigrams.get(trigram), nameHits, phoneHits, touched, phoneHits);
+            }
+            for (String key : queryPhoneticKeys) {
+                IntList postings = phoneticKeys.get(key);
+                if (postings != null) {
+                    for (int i = 0; i < postings.size; i++) {
+                        phoneticHits.set(postings.data[i]);
+                    }
+                }
+            }
+
+            // Top-k par tas minimum
+            PriorityQueue<double[]> best = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[1]));
+            for (int i = 0; i < touched.size; i++) {
+                int ordinal = touched.data[i];
+                if (deleted.get(ordinal)) {
+                    continue;
+                }
+                double score = 0;
+                if (nameHits[ordinal] > 0) {
+                    // Coefficient de Dice sur les trigrammes
+                    score = 2.0 * nameHits[ordinal] / (queryNameTrigrams.size() + nameTrigramCounts[ordinal]);
+                    if (phoneticHits.get(ordinal)) {
+                        score += PHONETIC_BONUS;
+                    }
+                }
+                if (phoneHits[ordinal] > 0) {
+                    score = Math.max(score, (double) phoneHits[ordinal] / queryPhoneTrigrams.size());
+                }
+                score = Math.min(1.0, score);
+                if (score >= minScore) {
+                    best.add(new double[]{ordinal, score});
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<FamilyLookupMatch> matches = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                double[] entry = best.poll();
+                int ordinal = (int) entry[0];
+                matches.add(FamilyLookupMatch.builder()
+                        .id(ids[ordinal])
+                        .reference(references[ordinal])
+                        .headOfFamily(headNames[ordinal])
+                        .phone(phones[ordinal])
+                        .score(entry[1])
+                        .build());
+            }
+            Collections.reverse(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(IntList postings, int[] nameHits, int[] phoneHits, IntList touched, int[] hits) {
+        if (postings == null) {
+            return;
+        }
+        for (int i = 0; i < postings.size; i++) {
+            int ordinal = postings.data[i];
+            if (nameHits[ordinal] == 0 && phoneHits[ordinal] == 0) {
+                touched.add(ordinal);
+            }
+            hits[ordinal]++;
+        }
+    }
+
+    // ===== Maintenance de l'index (sous verrou d'écriture) =====
+
+    private void add(UUID id, String reference, String headOfFamily, String phone) {
+        if (id == null) {
+            return;
+        }
+        ensureCapacity(size + 1);
+        int ordinal = size++;
+        ids[ordinal] = id;
+        references[ordinal] = reference;
+        headNames[ordinal] = headOfFamily;
+        phones[ordinal] = phone;
+        ordinals.put(id, ordinal);
+
+        Set<Long> trigrams = trigrams(nameText(headOfFamily));
+        nameTrigramCounts[ordinal] = trigrams.size();
+        for (Long trigram : trigrams) {
+            nameTrigrams.computeIfAbsent(trigram, key -> new IntList()).add(ordinal);
+        }
+        String digits = phoneDigits(phone);
+        if (!digits.isEmpty()) {
+            for (Long trigram : trigrams(digits)) {
+                phoneTrigrams.computeIfAbsent(trigram, key -> new IntList()).add(ordinal);
+            }
+        }
+        for (String key : phoneticKeys(nameText(headOfFamily))) {
+            phoneticKeys.computeIfAbsent(key, k -> new IntList()).add(ordinal);
+        }
+    }
+
+    // Les postings ne sont pas modifiés : l'ordinal est marqué supprimé jusqu'au prochain compactage
+    private void delete(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            deleted.set(ordinal);
+            deletedCount++;
+        }
+    }
+
+    // Chaque mise à jour laisse un ordinal supprimé : compactage dès qu'ils dépassent le quart de l'index
+    private void compactIfNeeded() {
+        if (deletedCount > INITIAL_CAPACITY && deletedCount > size / 4) {
+            compact();
+        }
+    }
+
+    // Mise à jour sans effet sur les champs indexés (priorité, adresse...) : l'ordinal est conservé
+    private boolean unchanged(UUID id, String reference, String headOfFamily, String phone) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null
+                && Objects.equals(references[ordinal], reference)
+                && Objects.equals(headNames[ordinal], headOfFamily)
+                && Objects.equals(phones[ordinal], phone);
+    }
+
+    private void compact() {
+        UUID[] oldIds = ids;
+        String[] oldReferences = references;
+        String[] oldHeadNames = headNames;
+        String[] oldPhones = phones;
+        int oldSize = size;
+        BitSet oldDeleted = (BitSet) deleted.clone();
+
+        clear();
+        for (int ordinal = 0; ordinal < oldSize; ordinal++) {
+            if (!oldDeleted.get(ordinal)) {
+                add(oldIds[ordinal], oldReferences[ordinal], oldHeadNames[ordinal], oldPhones[ordinal]);
+            }
+        }
+    }
+
+    private void clear() {
+        ids = new UUID[INITIAL_CAPACITY];
+        references = new String[INITIAL_CAPACITY];
+        headNames = new String[INITIAL_CAPACITY];
+        phones = new String[INITIAL_CAPACITY];
+        nameTrigramCounts = new int[INITIAL_CAPACITY];
+        deleted.clear();
+        size = 0;
+        deletedCount = 0;
+        ordinals.clear();
+        nameTrigrams.clear();
+        phoneTrigrams.clear();
+        phoneticKeys.clear();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newLength);
+        references = Arrays.copyOf(references, newLength);
+        headNames = Arrays.copyOf(headNames, newLength);
+        phones = Arrays.copyOf(phones, newLength);
+        nameTrigramCounts = Arrays.copyOf(nameTrigramCounts, newLength);
+    }
+
+    // ===== Normalisation =====
+
+    // Nom normalisé, mots séparés par un espace
+    private static String nameText(String text) {
+        return String.join(" ", SearchTextNormalizer.tokenize(text)).replaceAll("\\d", "").trim();
+    }
+
+    // Chiffres du téléphone, sans indicatif (+216 / 00216)
+    static String phoneDigits(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.length() > LOCAL_PHONE_DIGITS) {
+            digits = digits.substring(digits.length() - LOCAL_PHONE_DIGITS);
+        }
+        return digits;
+    }
+
+    private static Set<Long> trigrams(String text) {
+        if (text.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String padded = " " + text + " ";
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static Set<String> phoneticKeys(String text) {
+        Set<String> keys = new HashSet<>();
+        for (String token : text.split(" ")) {
+            if (token.length() >= 2) {
+                keys.add(phoneticKey(token));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Squelette consonantique d'un mot normalisé : voyelles supprimées (sauf en tête), digrammes
+     * de translittération unifiés (ch/sh, kh, gh, th, dh, ph, ou), consonnes proches confondues
+     * (b/p, d/t, c/k/q, s/z, f/v) et doublons fusionnés. Pour l'alphabet arabe : lettres longues
+     * (ا و ي) supprimées hors tête de mot.
+     */
+    static String phoneticKey(String token) {
+        StringBuilder key = new StringBuilder(token.length());
+        if (!token.chars().allMatch(c -> c < 0x0600 || c > 0x06FF)) {
+            for (int i = 0; i < token.length(); i++) {
+                char c = token.charAt(i);
+                if (i > 0 && (c == 'ا' || c == 'و' || c == 'ي')) {
+                    continue;
+                }
+                if (key.length() == 0 || key.charAt(key.length() - 1) != c) {
+                    key.append(c);
+                }
+            }
+            return key.toString();
+        }
+
+        String s = token
+                .replace("sh", "x").replace("ch", "x")
+                .replace("kh", "k").replace("gh", "g")
+                .replace("th", "t").replace("dh", "d")
+                .replace("ph", "f").replace("ou", "u")
+                .replace("ce", "se").replace("ci", "si");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            char mapped;
+            if ("aeiouyhw".indexOf(c) >= 0) {
+                if (i > 0) {
+                    continue;
+                }
+                // Voyelle initiale unifiée, h / y / w initiaux conservés
+                mapped = "aeiou".indexOf(c) >= 0 ? 'a' : c;
+            } else {
+                mapped = switch (c) {
+                    case 'p' -> 'b';
+                    case 'd' -> 't';
+                    case 'c', 'q' -> 'k';
+                    case 'z' -> 's';
+                    case 'v' -> 'f';
+                    default -> c;
+                };
+            }
+            if (key.length() == 0 || key.charAt(key.length() - 1) != mapped) {
+                key.append(mapped);
+            }
+        }
+        return key.toString();
+    }
+
+    // Liste d'int extensible (postings sans boxing)
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+    }
+}
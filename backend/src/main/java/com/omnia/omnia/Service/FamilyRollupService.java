@@ -0,0 +1,102 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.FamilyDailyRollup;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Repository.FamilyDailyRollupRepository;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.dto.DailyFamilyCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintenance de la table family_daily_rollup.
+ * Chaque famille compte dans le bucket (date d'inscription, priorité actuelle de la famille).
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class FamilyRollupService {
+
+    private final FamilyDailyRollupRepository rollupRepository;
+    private final FamilyRepository familyRepository;
+    private final TableVersionService tableVersionService;
+
+    public void onFamilyCreated(Family family) {
+        add(createdDate(family), family.getPriorityLevel(), 1);
+    }
+
+    public void onFamilyDeleted(Family family) {
+        add(createdDate(family), family.getPriorityLevel(), -1);
+    }
+
+    public void onFamilyPriorityChanged(Family family, PriorityLevel oldPriority) {
+        if (normalize(oldPriority) == normalize(family.getPriorityLevel())) {
+            return;
+        }
+        add(createdDate(family), oldPriority, -1);
+        add(createdDate(family), family.getPriorityLevel(), 1);
+    }
+
+    /**
+     * Reconstruit entièrement l'agrégat à partir de la table family (backfill)
+     */
+    public int rebuild() {
+        Map<String, FamilyDailyRollup> buckets = new HashMap<>();
+        for (DailyFamilyCount count : familyRepository.countGroupByCreatedDate()) {
+            PriorityLevel priority = normalize(count.getPriorityLevel());
+            FamilyDailyRollup bucket = buckets.computeIfAbsent(count.getCreatedDate() + "|" + priority,
+                    key -> FamilyDailyRollup.builder()
+                            .rollupDate(count.getCreatedDate())
+                            .priorityLevel(priority)
+                            .build());
+            bucket.setFamilyCount(bucket.getFamilyCount() + count.getTotal());
+        }
+
+        rollupRepository.deleteAllInBatch();
+        List<FamilyDailyRollup> rows = new ArrayList<>(buckets.values());
+        rollupRepository.saveAll(rows);
+        tableVersionService.markChanged(ChangeEntityType.FAMILY);
+        log.info("family_daily_rollup reconstruit : {} buckets", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Backfill au premier démarrage si la table d'agrégat est vide
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && familyRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void add(LocalDate date, PriorityLevel priority, long delta) {
+        if (date == null || delta == 0) {
+            return;
+        }
+        rollupRepository.addToBucket(UUID.randomUUID(), date, normalize(priority).name(), delta);
+    }
+
+    private LocalDate createdDate(Family family) {
+        return family.getCreatedAt() != null ? family.getCreatedAt().toLocalDate() : null;
+    }
+
+    // Valeur par défaut de l'entité Family pour une priorité nulle
+    private PriorityLevel normalize(PriorityLevel priority) {
+        return priority != null ? priority : PriorityLevel.Medium;
+    }
+}
@@ -0,0 +1,131 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.dto.FamilySearchDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index inversé en mémoire pour la recherche des familles (référence, chef de famille, adresse).
+ * Recherche par préfixe de mots, insensible à la casse et aux accents, résultats classés.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FamilySearchIndexService {
+
+    // Poids par champ : une correspondance sur la référence compte plus que sur l'adresse
+    private static final int REFERENCE_WEIGHT = 3;
+    private static final int HEAD_OF_FAMILY_WEIGHT = 2;
+    private static final int ADDRESS_WEIGHT = 1;
+
+    private final FamilyRepository familyRepository;
+
+    // mot normalisé -> (famille -> poids du meilleur champ contenant ce mot)
+    private final ConcurrentSkipListMap<String, Map<UUID, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Set<String>> documentTokens = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        postings.clear();
+        documentTokens.clear();
+        for (FamilySearchDocument document : familyRepository.findSearchDocuments()) {
+            apply(document.getId(), tokenize(document.getReference(), document.getHeadOfFamily(), document.getAddress()));
+        }
+        ready = true;
+        log.info("Index de recherche des familles chargé : {} familles, {} mots", documentTokens.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Family family) {
+        UUID id = family.getId();
+        Map<String, Integer> tokens = tokenize(family.getReference(), family.getHeadOfFamily(), family.getAddress());
+        AfterCommit.run(() -> apply(id, tokens));
+    }
+
+    public void remove(UUID familyId) {
+        AfterCommit.run(() -> apply(familyId, Collections.emptyMap()));
+    }
+
+    /**
+     * Identifiants des familles correspondant à tous les mots de la requête (préfixes), par pertinence décroissante
+     */
+    public List<UUID> search(String query, int limit) {
+        List<String> queryTokens = SearchTextNormalizer.tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<UUID, Integer> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<UUID, Integer> tokenScores = new HashMap<>();
+            for (Map.Entry<String, Map<UUID, Integer>> entry
+                    : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+                // Mot exact : double poids par rapport à un simple préfixe
+                int factor = entry.getKey().equals(queryToken) ? 2 : 1;
+                entry.getValue().forEach((id, weight) -> tokenScores.merge(id, weight * factor, Math::max));
+            }
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private synchronized void apply(UUID id, Map<String, Integer> tokens) {
+        Set<String> previous = documentTokens.remove(id);
+        if (previous != null) {
+            for (String token : previous) {
+                postings.computeIfPresent(token, (key, documents) -> {
+                    documents.remove(id);
+                    return documents.isEmpty() ? null : documents;
+                });
+            }
+        }
+
+        tokens.forEach((token, weight) ->
+                postings.computeIfAbsent(token, key -> new ConcurrentHashMap<>()).put(id, weight));
+        if (!tokens.isEmpty()) {
+            documentTokens.put(id, new HashSet<>(tokens.keySet()));
+        }
+    }
+
+    private static Map<String, Integer> tokenize(String reference, String headOfFamily, String address) {
+        Map<String, Integer> tokens = new HashMap<>();
+        addTokens(tokens, address, ADDRESS_WEIGHT);
+        addTokens(tokens, headOfFamily, HEAD_OF_FAMILY_WEIGHT);
+        addTokens(tokens, reference, REFERENCE_WEIGHT);
+        return tokens;
+    }
+
+    private static void addTokens(Map<String, Integer> tokens, String text, int weight) {
+        for (String token : SearchTextNormalizer.tokenize(text)) {
+            tokens.merge(token, weight, Math::max);
+        }
+    }
+}
@@ -1,24 +1,104 @@
 package com.omnia.omnia.Service;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnia.omnia.Entities.ChangeEntityType;
 import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.PriorityLevel;
 import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.dto.AidTypeRef;
+import com.omnia.omnia.dto.CursorPage;
+import com.omnia.omnia.dto.FamilyDetail;
+import com.omnia.omnia.dto.FamilyLookupMatch;
+import com.omnia.omnia.dto.FamilySummary;
+import com.omnia.omnia.dto.NearbyFamily;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class FamilyService {
 
+    private static final double MAX_NEARBY_RADIUS_KM = 100;
+    private static final int MAX_NEARBY_LIMIT = 200;
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+    private static final int MAX_SEARCH_LIMIT = 200;
+
     private final FamilyRepository familyRepository;
+    private final VisitRollupService visitRollupService;
+    private final AidRollupService aidRollupService;
+    private final FamilyRollupService familyRollupService;
+    private final FamilyDueQueueService familyDueQueueService;
+    private final FamilySpatialIndexService familySpatialIndexService;
+    private final FamilySearchIndexService familySearchIndexService;
+    private final FamilyLookupIndexService familyLookupIndexService;
+    private final ChangeLogService changeLogService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public List<FamilySummary> findAll() {
+        return familyRepository.findAllSummaries();
+    }
+
+    /**
+     * Pagination keyset (createdAt DESC, id DESC)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<FamilySummary> findPage(String cursor, Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize);
+
+        List<FamilySummary> families;
+        if (cursor == null || cursor.isBlank()) {
+            families = familyRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            families = familyRepository.findPageAfter(after.sortValueAsDateTime(), after.id(), limit);
+        }
 
-    public List<Family> findAll() {
-        return familyRepository.findAll();
+        String nextCursor = null;
+        if (families.size() == pageSize) {
+            FamilySummary last = families.get(families.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return CursorPage.<FamilySummary>builder()
+                .items(families)
+                .size(families.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Export NDJSON de toutes les familles, en flux (mémoire constante)
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (Stream<FamilySummary> families = familyRepository.streamAll()) {
+            Iterator<FamilySummary> iterator = families.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
     }
 
     public Family findById(UUID id) {
@@ -26,7 +106,14 @@ public class FamilyService {
                 .orElseThrow(() -> new RuntimeException("Family not found with id: " + id));
     }
 
-    public Family create(Family family) {
+    @Transactional(readOnly = true)
+    public FamilyDetail findDetailById(UUID id) {
+        return familyRepository.findDetailById(id)
+                .map(this::toDetail)
+                .orElseThrow(() -> new RuntimeException("Family not found with id: " + id));
+    }
+
+    public FamilyDetail create(Family family) {
         // Générer une référence unique si non fournie
         if (family.getReference() == null || family.getReference().isEmpty()) {
             String ref = "FAM-" + System.currentTimeMillis() % 10000;
@@ -38,45 +125,121 @@ public class FamilyService {
             throw new RuntimeException("Family reference already exists: " + family.getReference());
         }
 
-        return familyRepository.save(family);
+        // Détection de doublons probables (même téléphone ou nom très proche)
+        List<FamilyLookupMatch> duplicates = familyLookupIndexService.findPossibleDuplicates(
+                family.getHeadOfFamily(), family.getPhone(), 3);
+        if (!duplicates.isEmpty()) {
+            log.warn("Famille '{}' : doublons possibles {}", family.getHeadOfFamily(),
+                    duplicates.stream().map(FamilyLookupMatch::getReference).collect(Collectors.toList()));
+        }
+
+        // Planification dérivée des visites (VisitScheduleService)
+        family.setLastVisitDate(null);
+        family.setNextVisitDue(null);
+
+        Family saved = familyRepository.save(family);
+        familyRollupService.onFamilyCreated(saved);
+        familySpatialIndexService.index(saved);
+        familySearchIndexService.index(saved);
+        familyLookupIndexService.index(saved);
+        changeLogService.recordUpsert(ChangeEntityType.FAMILY, saved.getId());
+        return toDetail(saved);
     }
 
-    public Family update(UUID id, Family familyDetails) {
-        Family family = findById(id);
+    public FamilyDetail update(UUID id, Family familyDetails) {
+        return toDetail(applyChanges(findById(id), family -> {
+            // Mettre à jour les champs
+            family.setHeadOfFamily(familyDetails.getHeadOfFamily());
+            family.setPhone(familyDetails.getPhone());
+            family.setAddress(familyDetails.getAddress());
+            family.setFamilySize(familyDetails.getFamilySize());
+            family.setNeedsDescription(familyDetails.getNeedsDescription());
+            family.setPriorityLevel(familyDetails.getPriorityLevel());
+            family.setNotes(familyDetails.getNotes());
 
-        // Mettre à jour les champs
-        family.setHeadOfFamily(familyDetails.getHeadOfFamily());
-        family.setPhone(familyDetails.getPhone());
-        family.setAddress(familyDetails.getAddress());
-        family.setFamilySize(familyDetails.getFamilySize());
-        family.setNeedsDescription(familyDetails.getNeedsDescription());
-        family.setPriorityLevel(familyDetails.getPriorityLevel());
-        family.setNotes(familyDetails.getNotes());
-
-        // Géolocalisation
-        if (familyDetails.getLatitude() != null && familyDetails.getLongitude() != null) {
-            family.setLatitude(familyDetails.getLatitude());
-            family.setLongitude(familyDetails.getLongitude());
-        }
+            // Géolocalisation
+            if (familyDetails.getLatitude() != null && familyDetails.getLongitude() != null) {
+                family.setLatitude(familyDetails.getLatitude());
+                family.setLongitude(familyDetails.getLongitude());
+            }
+        }));
+    }
 
-        return familyRepository.save(family);
+    /**
+     * Applique une modification à une famille chargée (mise à jour REST ou fusion de synchronisation)
+     * en maintenant les agrégats, les index et le journal des modifications
+     */
+    public Family applyChanges(Family family, Consumer<Family> changes) {
+        PriorityLevel oldPriority = family.getPriorityLevel();
+        changes.accept(family);
+
+        // Les agrégats (visites, aides, inscriptions) sont indexés par priorité de la famille
+        visitRollupService.onFamilyPriorityChanged(family, oldPriority);
+        aidRollupService.onFamilyPriorityChanged(family, oldPriority);
+        familyRollupService.onFamilyPriorityChanged(family, oldPriority);
+
+        Family saved = familyRepository.save(family);
+        familySpatialIndexService.index(saved);
+        familySearchIndexService.index(saved);
+        familyLookupIndexService.index(saved);
+        familyDueQueueService.index(saved);
+        changeLogService.recordUpsert(ChangeEntityType.FAMILY, saved.getId());
+        return saved;
     }
 
     public void delete(UUID id) {
         Family family = findById(id);
+        familyRollupService.onFamilyDeleted(family);
         familyRepository.delete(family);
+        familySpatialIndexService.remove(id);
+        familySearchIndexService.remove(id);
+        familyLookupIndexService.remove(id);
+        familyDueQueueService.remove(id);
+        changeLogService.recordDelete(ChangeEntityType.FAMILY, id);
     }
 
-    public List<Family> search(String query) {
+    @Transactional(readOnly = true)
+    public List<FamilySummary> search(String query, Integer limit) {
+        int maxResults = limit == null || limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        // Requête vide : familles les plus récentes, bornées comme une recherche (jamais la table entière)
         if (query == null || query.trim().isEmpty()) {
-            return findAll();
+            return familyRepository.findFirstPage(PageRequest.of(0, maxResults));
+        }
+
+        // Repli sur la recherche SQL tant que l'index n'est pas chargé
+        if (!familySearchIndexService.isReady()) {
+            return familyRepository.search(query.trim()).stream()
+                    .limit(maxResults)
+                    .collect(Collectors.toList());
+        }
+
+        List<UUID> rankedIds = familySearchIndexService.search(query, maxResults);
+        Map<UUID, FamilySummary> families = familyRepository.findSummariesByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(FamilySummary::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(families::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recherche approchée (fautes de frappe, translittérations, numéro partiel)
+     */
+    public List<FamilyLookupMatch> lookup(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
         }
-        return familyRepository.search(query.trim());
+        return familyLookupIndexService.lookup(query, limit == null || limit <= 0 ? 10 : Math.min(limit, 50));
+    }
+
+    public List<FamilyLookupMatch> findPossibleDuplicates(String headOfFamily, String phone) {
+        return familyLookupIndexService.findPossibleDuplicates(headOfFamily, phone, 10);
     }
 
-    public List<Family> findByPriority(String priority) {
+    @Transactional(readOnly = true)
+    public List<FamilySummary> findByPriority(String priority) {
         try {
-            return familyRepository.findByPriorityLevel(
+            return familyRepository.findSummariesByPriorityLevel(
                     com.omnia.omnia.Entities.PriorityLevel.valueOf(priority.toUpperCase())
             );
         } catch (IllegalArgumentException e) {
@@ -84,7 +247,79 @@ public class FamilyService {
         }
     }
 
+    /**
+     * Familles proches d'une position (tournée des bénévoles)
+     */
+    public List<NearbyFamily> findNearby(double latitude, double longitude, double radiusKm, int limit, String priority) {
+        if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new RuntimeException("radiusKm must be between 0 and " + MAX_NEARBY_RADIUS_KM);
+        }
+        PriorityLevel priorityLevel = null;
+        if (priority != null && !priority.isBlank()) {
+            priorityLevel = Arrays.stream(PriorityLevel.values())
+                    .filter(level -> level.name().equalsIgnoreCase(priority))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Invalid priority level: " + priority));
+        }
+
+        List<Map.Entry<UUID, Double>> matches = familySpatialIndexService.findNearby(
+                latitude, longitude, radiusKm, Math.max(1, Math.min(limit, MAX_NEARBY_LIMIT)), priorityLevel);
+
+        Map<UUID, FamilySummary> families = familyRepository.findSummariesByIdIn(
+                        matches.stream().map(Map.Entry::getKey).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(FamilySummary::getId, Function.identity()));
+
+        return matches.stream()
+                .filter(match -> families.containsKey(match.getKey()))
+                .map(match -> {
+                    FamilySummary family = families.get(match.getKey());
+                    return NearbyFamily.builder()
+                            .id(family.getId())
+                            .reference(family.getReference())
+                            .headOfFamily(family.getHeadOfFamily())
+                            .phone(family.getPhone())
+                            .address(family.getAddress())
+                            .latitude(family.getLatitude())
+                            .longitude(family.getLongitude())
+                            .priorityLevel(family.getPriorityLevel())
+                            .distanceKm(match.getValue())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
     public long count() {
         return familyRepository.count();
     }
+
+    private FamilyDetail toDetail(Family family) {
+        return FamilyDetail.builder()
+                .id(family.getId())
+                .reference(family.getReference())
+                .headOfFamily(family.getHeadOfFamily())
+                .phone(family.getPhone())
+                .address(family.getAddress())
+                .latitude(family.getLatitude())
+                .longitude(family.getLongitude())
+                .familySize(family.getFamilySize())
+                .needsDescription(family.getNeedsDescription())
+                .priorityLevel(family.getPriorityLevel())
+                .notes(family.getNotes())
+                .frequentAidTypes(family.getFrequentAidTypes().stream()
+                        .map(aidType -> AidTypeRef.builder()
+                                .id(aidType.getId())
+                                .name(aidType.getName())
+                                .category(aidType.getCategory())
+                                .unit(aidType.getUnit())
+                                .icon(aidType.getIcon())
+                                .build())
+                        .collect(Collectors.toList()))
+                .lastVisitDate(family.getLastVisitDate())
+                .nextVisitDue(family.getNextVisitDue())
+                .createdAt(family.getCreatedAt())
+                .updatedAt(family.getUpdatedAt())
+                .version(family.getVersion())
+                .build();
+    }
 }
\ No newline at end of file
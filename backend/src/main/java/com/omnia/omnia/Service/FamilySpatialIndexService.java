@@ -0,0 +1,265 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.dto.FamilyGeoPoint;
+import com.omnia.omnia.dto.MapTile;
+import com.omnia.omnia.dto.TileCluster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index spatial en mémoire des familles géolocalisées.
+ * Chaque famille est indexée par sa clé Morton (quadtree linéarisé) au zoom MAX_ZOOM :
+ * les familles d'une tuile z/x/y forment donc un intervalle contigu de clés.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FamilySpatialIndexService {
+
+    public static final int MAX_ZOOM = 30;
+    // Chaque tuile est découpée en 2^3 x 2^3 = 64 cellules de clustering
+    private static final int CLUSTER_LEVELS = 3;
+    private static final double MAX_LATITUDE = 85.05112878;
+    private static final UUID MIN_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final FamilyRepository familyRepository;
+
+    private final ConcurrentSkipListSet<IndexedFamily> byKey = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(IndexedFamily::key).thenComparing(IndexedFamily::id));
+    private final ConcurrentHashMap<UUID, IndexedFamily> byId = new ConcurrentHashMap<>();
+
+    private record IndexedFamily(long key, UUID id, double latitude, double longitude, PriorityLevel priorityLevel) {
+    }
+
+    /**
+     * Chargement initial de l'index depuis la base
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        byKey.clear();
+        byId.clear();
+        for (FamilyGeoPoint point : familyRepository.findGeoPoints()) {
+            apply(point.getId(), toEntry(point.getId(), point.getLatitude(), point.getLongitude(), point.getPriorityLevel()));
+        }
+        log.info("Index spatial des familles chargé : {} familles géolocalisées", byId.size());
+    }
+
+    /**
+     * Indexe (ou retire si elle n'a plus de coordonnées) une famille, après commit de la transaction courante
+     */
+    public void index(Family family) {
+        UUID id = family.getId();
+        IndexedFamily entry = toEntry(id, family.getLatitude(), family.getLongitude(), family.getPriorityLevel());
+        AfterCommit.run(() -> apply(id, entry));
+    }
+
+    public void remove(UUID familyId) {
+        AfterCommit.run(() -> apply(familyId, null));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Points pré-clusterisés d'une tuile (schéma XYZ / Web Mercator)
+     */
+    public MapTile getTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1L << z) || y >= (1L << z)) {
+            throw new RuntimeException("Invalid tile coordinates: " + z + "/" + x + "/" + y);
+        }
+
+        int shift = 2 * (MAX_ZOOM - z);
+        long prefix = interleave(x, y);
+        long low = prefix << shift;
+        long high = (prefix + 1) << shift;
+
+        int levels = Math.min(CLUSTER_LEVELS, MAX_ZOOM - z);
+        int cellShift = 2 * (MAX_ZOOM - z - levels);
+        long cellMask = (1L << (2 * levels)) - 1;
+
+        Map<Long, ClusterAccumulator> cells = new HashMap<>();
+        long total = 0;
+        for (IndexedFamily family : byKey.subSet(sentinel(low), true, sentinel(high), false)) {
+            cells.computeIfAbsent((family.key() >>> cellShift) & cellMask, cell -> new ClusterAccumulator())
+                    .add(family);
+            total++;
+        }
+
+        List<TileCluster> clusters = new ArrayList<>(cells.size());
+        for (ClusterAccumulator cell : cells.values()) {
+            clusters.add(cell.toCluster());
+        }
+
+        return MapTile.builder()
+                .z(z)
+                .x(x)
+                .y(y)
+                .totalFamilies(total)
+                .clusters(clusters)
+                .build();
+    }
+
+    /**
+     * Familles dans un rayon autour d'un point, triées par distance croissante.
+     * Préfiltre par les tuiles couvrant la bounding box, puis distance haversine.
+     */
+    public List<Map.Entry<UUID, Double>> findNearby(double latitude, double longitude, double radiusKm,
+                                                    int limit, PriorityLevel priorityLevel) {
+        double deltaLat = radiusKm / KM_PER_DEGREE;
+        double deltaLng = radiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+
+        double south = Math.max(-MAX_LATITUDE, latitude - deltaLat);
+        double north = Math.min(MAX_LATITUDE, latitude + deltaLat);
+        double west = Math.max(-180.0, longitude - deltaLng);
+        double east = Math.min(180.0, longitude + deltaLng);
+
+        // Zoom où une tuile est au moins aussi large que la bounding box : 2 x 2 tuiles en général
+        int z = (int) Math.floor(Math.log(360.0 / Math.max(2 * deltaLng, 1e-9)) / Math.log(2));
+        z = Math.max(0, Math.min(MAX_ZOOM, z));
+        int shift = MAX_ZOOM - z;
+
+        long northWest = mortonKey(north, west);
+        long southEast = mortonKey(south, east);
+        long minX = compact(northWest) >>> shift;
+        long minY = compact(northWest >>> 1) >>> shift;
+        long maxX = compact(southEast) >>> shift;
+        long maxY = compact(southEast >>> 1) >>> shift;
+
+        List<Map.Entry<UUID, Double>> matches = new ArrayList<>();
+        for (long tx = minX; tx <= maxX; tx++) {
+            for (long ty = minY; ty <= maxY; ty++) {
+                long prefix = interleave(tx, ty);
+                for (IndexedFamily family : byKey.subSet(
+                        sentinel(prefix << (2 * shift)), true, sentinel((prefix + 1) << (2 * shift)), false)) {
+                    if (priorityLevel != null && family.priorityLevel() != priorityLevel) {
+                        continue;
+                    }
+                    double distance = haversineKm(latitude, longitude, family.latitude(), family.longitude());
+                    if (distance <= radiusKm) {
+                        matches.add(Map.entry(family.id(), distance));
+                    }
+                }
+            }
+        }
+
+        matches.sort(Map.Entry.comparingByValue());
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void apply(UUID id, IndexedFamily entry) {
+        byId.compute(id, (key, previous) -> {
+            if (previous != null) {
+                byKey.remove(previous);
+            }
+            if (entry != null) {
+                byKey.add(entry);
+            }
+            return entry;
+        });
+    }
+
+    private static IndexedFamily toEntry(UUID id, Double latitude, Double longitude, PriorityLevel priorityLevel) {
+        if (id == null || latitude == null || longitude == null) {
+            return null;
+        }
+        return new IndexedFamily(mortonKey(latitude, longitude), id, latitude, longitude,
+                priorityLevel != null ? priorityLevel : PriorityLevel.Medium);
+    }
+
+    private static IndexedFamily sentinel(long key) {
+        return new IndexedFamily(key, MIN_UUID, 0, 0, null);
+    }
+
+    // Projection Web Mercator au zoom MAX_ZOOM puis entrelacement des bits x/y
+    static long mortonKey(double latitude, double longitude) {
+        long n = 1L << MAX_ZOOM;
+        double lat = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double latRad = Math.toRadians(lat);
+
+        long x = (long) Math.floor((longitude + 180.0) / 360.0 * n);
+        long y = (long) Math.floor((1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * n);
+
+        return interleave(Math.max(0, Math.min(n - 1, x)), Math.max(0, Math.min(n - 1, y)));
+    }
+
+    private static long interleave(long x, long y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    // Inverse de spread : extrait les bits de rang pair
+    private static long compact(long v) {
+        v &= 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+        return v;
+    }
+
+    private static class ClusterAccumulator {
+        private long count;
+        private double sumLatitude;
+        private double sumLongitude;
+        private UUID firstId;
+        private final long[] byPriority = new long[PriorityLevel.values().length];
+
+        void add(IndexedFamily family) {
+            if (count == 0) {
+                firstId = family.id();
+            }
+            count++;
+            sumLatitude += family.latitude();
+            sumLongitude += family.longitude();
+            byPriority[family.priorityLevel().ordinal()]++;
+        }
+
+        TileCluster toCluster() {
+            Map<String, Long> priorities = new LinkedHashMap<>();
+            for (PriorityLevel level : PriorityLevel.values()) {
+                if (byPriority[level.ordinal()] > 0) {
+                    priorities.put(level.name(), byPriority[level.ordinal()]);
+                }
+            }
+            return TileCluster.builder()
+                    .latitude(sumLatitude / count)
+                    .longitude(sumLongitude / count)
+                    .count(count)
+                    .byPriority(priorities)
+                    .familyId(count == 1 ? firstId : null)
+                    .build();
+        }
+    }
+}
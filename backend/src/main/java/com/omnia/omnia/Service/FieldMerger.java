@@ -0,0 +1,133 @@
+package com.omnia.omnia.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnia.omnia.dto.FieldConflict;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fusion à trois voies, champ par champ, d'une modification hors-ligne :
+ * valeur de base vue par le client, valeur serveur actuelle et valeur du client.
+ * Un champ n'est en conflit que s'il a été modifié des deux côtés avec des valeurs différentes.
+ */
+final class FieldMerger<E> {
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private final Map<String, ScalarField<E>> scalarFields = new LinkedHashMap<>();
+    private final Map<String, Function<E, List<String>>> setFields = new LinkedHashMap<>();
+
+    <T> FieldMerger<E> scalar(String name, Class<T> type, Function<E, T> getter, BiConsumer<E, T> setter) {
+        scalarFields.put(name, new ScalarField<>(type, getter::apply, (entity, value) -> setter.accept(entity, type.cast(value))));
+        return this;
+    }
+
+    /**
+     * Liste traitée comme un ensemble : ajouts et retraits des deux côtés se cumulent, sans conflit
+     */
+    FieldMerger<E> stringSet(String name, Function<E, List<String>> getter) {
+        setFields.put(name, getter);
+        return this;
+    }
+
+    /**
+     * @param upToDate le client a modifié la version serveur actuelle : ses valeurs s'appliquent sans comparaison
+     * @throws IllegalArgumentException champ inconnu ou valeur non convertible
+     */
+    Merge<E> merge(E entity, boolean upToDate, Map<String, Object> base, Map<String, Object> changes,
+                   ObjectMapper objectMapper) {
+        Map<String, Object> baseValues = base != null ? base : Map.of();
+        List<Consumer<E>> updates = new ArrayList<>();
+        List<FieldConflict> conflicts = new ArrayList<>();
+
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String name = change.getKey();
+            ScalarField<E> scalar = scalarFields.get(name);
+            Function<E, List<String>> set = setFields.get(name);
+
+            if (scalar != null) {
+                Object clientValue = objectMapper.convertValue(change.getValue(), scalar.type());
+                Object serverValue = scalar.getter().apply(entity);
+                if (Objects.equals(clientValue, serverValue)) {
+                    continue;
+                }
+                // Sans valeur de base, une version périmée ne permet pas de savoir qui a modifié le champ
+                boolean hasBase = baseValues.containsKey(name);
+                Object baseValue = hasBase ? objectMapper.convertValue(baseValues.get(name), scalar.type()) : null;
+                if (!upToDate && hasBase && Objects.equals(baseValue, clientValue)) {
+                    // Champ renvoyé sans modification côté client : la valeur serveur est conservée
+                    continue;
+                }
+                if (upToDate || (hasBase && Objects.equals(baseValue, serverValue))) {
+                    updates.add(target -> scalar.setter().accept(target, clientValue));
+                } else {
+                    conflicts.add(FieldConflict.builder()
+                            .field(name)
+                            .baseValue(baseValue)
+                            .serverValue(serverValue)
+                            .clientValue(clientValue)
+                            .build());
+                }
+            } else if (set != null) {
+                List<String> current = set.apply(entity);
+                List<String> clientValues = toList(change.getValue(), objectMapper);
+                List<String> baseList = baseValues.containsKey(name)
+                        ? toList(baseValues.get(name), objectMapper)
+                        : upToDate ? current : List.of();
+
+                List<String> merged = new ArrayList<>(current);
+                merged.removeAll(difference(baseList, clientValues));
+                for (String added : difference(clientValues, baseList)) {
+                    if (!merged.contains(added)) {
+                        merged.add(added);
+                    }
+                }
+                if (!merged.equals(current)) {
+                    updates.add(target -> {
+                        // Même instance de collection : Hibernate suit les éléments ajoutés / retirés
+                        List<String> values = set.apply(target);
+                        values.clear();
+                        values.addAll(merged);
+                    });
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+        }
+        return new Merge<>(updates, conflicts);
+    }
+
+    private static List<String> toList(Object value, ObjectMapper objectMapper) {
+        List<String> values = objectMapper.convertValue(value, STRING_LIST);
+        return values != null ? values : List.of();
+    }
+
+    private static List<String> difference(List<String> values, List<String> removed) {
+        List<String> result = new ArrayList<>(values);
+        result.removeAll(removed);
+        return result;
+    }
+
+    private record ScalarField<E>(Class<?> type, Function<E, Object> getter, BiConsumer<E, Object> setter) {
+    }
+
+    record Merge<E>(List<Consumer<E>> updates, List<FieldConflict> conflicts) {
+
+        boolean hasConflicts() {
+            return !conflicts.isEmpty();
+        }
+
+        void applyTo(E entity) {
+            updates.forEach(update -> update.accept(entity));
+        }
+    }
+}
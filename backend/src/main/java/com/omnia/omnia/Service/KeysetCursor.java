@@ -0,0 +1,67 @@
+package com.omnia.omnia.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Curseur opaque de pagination keyset : (valeur de tri, id) encodés en Base64 URL
+ */
+final class KeysetCursor {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private final String sortValue;
+    private final UUID id;
+
+    private KeysetCursor(String sortValue, UUID id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    static String encode(Object sortValue, UUID id) {
+        String raw = sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(raw.substring(0, separator), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    LocalDateTime sortValueAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortValue);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor value: " + sortValue);
+        }
+    }
+
+    LocalDate sortValueAsDate() {
+        try {
+            return LocalDate.parse(sortValue);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor value: " + sortValue);
+        }
+    }
+
+    UUID id() {
+        return id;
+    }
+}
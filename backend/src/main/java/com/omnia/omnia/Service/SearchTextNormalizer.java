@@ -0,0 +1,57 @@
+package com.omnia.omnia.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation du texte pour la recherche : minuscules, suppression des accents (français)
+ * et des voyelles courtes / variantes de lettres (arabe).
+ */
+final class SearchTextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private SearchTextNormalizer() {
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        String withoutMarks = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+
+        StringBuilder normalized = new StringBuilder(withoutMarks.length());
+        for (int i = 0; i < withoutMarks.length(); i++) {
+            char c = withoutMarks.charAt(i);
+            switch (c) {
+                case 'أ', 'إ', 'آ', 'ٱ' -> normalized.append('ا');
+                case 'ة' -> normalized.append('ه');
+                case 'ى' -> normalized.append('ي');
+                case 'ؤ' -> normalized.append('و');
+                case 'ئ' -> normalized.append('ي');
+                case 'ـ' -> {
+                    // tatweel : ignoré
+                }
+                case 'œ' -> normalized.append("oe");
+                case 'æ' -> normalized.append("ae");
+                case 'ß' -> normalized.append("ss");
+                default -> normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
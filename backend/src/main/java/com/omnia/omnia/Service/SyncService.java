@@ -0,0 +1,478 @@
+package com.omnia.omnia.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnia.omnia.Entities.AidDistribution;
+import com.omnia.omnia.Entities.AidType;
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.ChangeLogEntry;
+import com.omnia.omnia.Entities.ChangeOperation;
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Entities.User;
+import com.omnia.omnia.Entities.Visit;
+import com.omnia.omnia.Entities.VisitType;
+import com.omnia.omnia.Repository.AidTypeRepository;
+import com.omnia.omnia.Repository.ChangeLogRepository;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.Repository.UserRepository;
+import com.omnia.omnia.Repository.VisitRepository;
+import com.omnia.omnia.dto.AidDistributionSyncItem;
+import com.omnia.omnia.dto.FamilySummary;
+import com.omnia.omnia.dto.SyncChanges;
+import com.omnia.omnia.dto.SyncEdit;
+import com.omnia.omnia.dto.SyncEditResponse;
+import com.omnia.omnia.dto.SyncEditResult;
+import com.omnia.omnia.dto.SyncStatus;
+import com.omnia.omnia.dto.SyncTombstone;
+import com.omnia.omnia.dto.VisitClientRef;
+import com.omnia.omnia.dto.VisitSummary;
+import com.omnia.omnia.dto.VisitSyncItem;
+import com.omnia.omnia.dto.VisitSyncResponse;
+import com.omnia.omnia.dto.VisitSyncResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Synchronisation des visites saisies hors-ligne.
+ * Un lot = un nombre constant de requêtes de lecture, puis des INSERT groupés (hibernate.jdbc.batch_size).
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int DEFAULT_CHANGES_LIMIT = 500;
+    private static final int MAX_CHANGES_LIMIT = 2000;
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
+    // Champs modifiables hors-ligne
+    private static final FieldMerger<Visit> VISIT_FIELDS = new FieldMerger<Visit>()
+            .scalar("visitDate", LocalDate.class, Visit::getVisitDate, Visit::setVisitDate)
+            .scalar("visitType", VisitType.class, Visit::getVisitType, Visit::setVisitType)
+            .scalar("observations", String.class, Visit::getObservations, Visit::setObservations)
+            .scalar("locationLat", Double.class, Visit::getLocationLat, Visit::setLocationLat)
+            .scalar("locationLng", Double.class, Visit::getLocationLng, Visit::setLocationLng)
+            .scalar("nextVisitDate", LocalDate.class, Visit::getNextVisitDate, Visit::setNextVisitDate)
+            .stringSet("identifiedNeeds", Visit::getIdentifiedNeeds);
+
+    private static final FieldMerger<Family> FAMILY_FIELDS = new FieldMerger<Family>()
+            .scalar("headOfFamily", String.class, Family::getHeadOfFamily, Family::setHeadOfFamily)
+            .scalar("phone", String.class, Family::getPhone, Family::setPhone)
+            .scalar("address", String.class, Family::getAddress, Family::setAddress)
+            .scalar("latitude", Double.class, Family::getLatitude, Family::setLatitude)
+            .scalar("longitude", Double.class, Family::getLongitude, Family::setLongitude)
+            .scalar("familySize", Integer.class, Family::getFamilySize, Family::setFamilySize)
+            .scalar("needsDescription", String.class, Family::getNeedsDescription, Family::setNeedsDescription)
+            .scalar("priorityLevel", PriorityLevel.class, Family::getPriorityLevel, Family::setPriorityLevel)
+            .scalar("notes", String.class, Family::getNotes, Family::setNotes);
+
+    private final VisitRepository visitRepository;
+    private final FamilyRepository familyRepository;
+    private final AidTypeRepository aidTypeRepository;
+    private final AidTypeCatalogService aidTypeCatalogService;
+    private final UserRepository userRepository;
+    private final VisitRollupService visitRollupService;
+    private final AidRollupService aidRollupService;
+    private final VisitScheduleService visitScheduleService;
+    private final ChangeLogService changeLogService;
+    private final ChangeLogRepository changeLogRepository;
+    private final VisitService visitService;
+    private final FamilyService familyService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Un lot renvoyé en parallèle (client hors-ligne instable) peut insérer les mêmes clientId entre la lecture
+     * des doublons et le commit : la violation de l'unicité de clientId annule la transaction, le lot est alors
+     * rejoué une fois dans une nouvelle transaction, où les visites validées par l'autre envoi sont des DUPLICATE.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public VisitSyncResponse syncVisits(List<VisitSyncItem> items, String volunteerEmail) {
+        if (items == null || items.isEmpty()) {
+            return VisitSyncResponse.builder().results(List.of()).build();
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Sync batch too large: " + items.size() + " visits (max " + MAX_BATCH_SIZE + ")");
+        }
+        try {
+            return transactionTemplate.execute(status -> persistVisits(items, volunteerEmail));
+        } catch (DataIntegrityViolationException e) {
+            log.info("Envoi concurrent d'un même lot de visites, nouvel essai : {}", e.getMostSpecificCause().getMessage());
+            return transactionTemplate.execute(status -> persistVisits(items, volunteerEmail));
+        }
+    }
+
+    private VisitSyncResponse persistVisits(List<VisitSyncItem> items, String volunteerEmail) {
+        // Visites déjà reçues lors d'un envoi précédent
+        Set<UUID> clientIds = items.stream()
+                .map(VisitSyncItem::getClientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, UUID> alreadySynced = clientIds.isEmpty() ? Map.of() : visitRepository.findByClientIdIn(clientIds).stream()
+                .collect(Collectors.toMap(VisitClientRef::getClientId, VisitClientRef::getId));
+
+        // Familles et bénévole résolus en une requête chacun, types d'aide lus dans le catalogue en mémoire
+        Map<UUID, Family> families = familyRepository.findAllById(items.stream()
+                        .map(VisitSyncItem::getFamilyId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Family::getId, Function.identity()));
+        User volunteer = volunteerEmail != null ? userRepository.findByEmail(volunteerEmail).orElse(null) : null;
+        AidTypeCatalog aidTypes = aidTypeCatalogService.snapshot();
+
+        List<VisitSyncResult> results = new ArrayList<>(items.size());
+        Map<UUID, Visit> created = new LinkedHashMap<>();
+        for (VisitSyncItem item : items) {
+            UUID clientId = item.getClientId();
+            if (clientId == null) {
+                results.add(rejected(null, "clientId is required"));
+            } else if (alreadySynced.containsKey(clientId) || created.containsKey(clientId)) {
+                results.add(VisitSyncResult.builder()
+                        .clientId(clientId)
+                        .visitId(alreadySynced.get(clientId))
+                        .status(SyncStatus.DUPLICATE)
+                        .build());
+            } else if (!families.containsKey(item.getFamilyId())) {
+                results.add(rejected(clientId, "Family not found with id: " + item.getFamilyId()));
+            } else {
+                String error = validateAidDistributions(item, aidTypes);
+                if (error != null) {
+                    results.add(rejected(clientId, error));
+                } else {
+                    created.put(clientId, toVisit(item, families.get(item.getFamilyId()), volunteer, aidTypes));
+                    results.add(VisitSyncResult.builder()
+                            .clientId(clientId)
+                            .status(SyncStatus.CREATED)
+                            .build());
+                }
+            }
+        }
+
+        // Identifiants UUID générés à la persistance : les INSERT sont regroupés au flush
+        visitRepository.saveAll(created.values());
+        visitRollupService.onVisitsCreated(created.values());
+        aidRollupService.onVisitsCreated(created.values());
+        visitScheduleService.onVisitsCreated(created.values());
+        changeLogService.recordUpserts(ChangeEntityType.VISIT, created.values().stream()
+                .map(Visit::getId)
+                .collect(Collectors.toList()));
+
+        int duplicates = 0;
+        int rejected = 0;
+        for (VisitSyncResult result : results) {
+            if (result.getStatus() == SyncStatus.REJECTED) {
+                rejected++;
+                continue;
+            }
+            if (result.getStatus() == SyncStatus.DUPLICATE) {
+                duplicates++;
+            }
+            if (result.getVisitId() == null) {
+                result.setVisitId(created.get(result.getClientId()).getId());
+            }
+        }
+
+        log.info("Synchronisation de {} visites : {} créées, {} doublons, {} rejetées",
+                items.size(), created.size(), duplicates, rejected);
+        return VisitSyncResponse.builder()
+                .received(items.size())
+                .created(created.size())
+                .duplicates(duplicates)
+                .rejected(rejected)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Modifications hors-ligne de visites et familles, fusionnées champ par champ avec l'état serveur.
+     * Une modification en conflit n'est pas appliquée ; les autres du lot le sont.
+     * Une écriture concurrente (modification REST) validée entre la lecture et le flush fait échouer le contrôle
+     * de version : le lot est rejoué dans une nouvelle transaction et fusionné avec les lignes relues, chaque
+     * modification concernée devenant MERGED ou CONFLICT.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SyncEditResponse applyEdits(List<SyncEdit> edits) {
+        if (edits == null || edits.isEmpty()) {
+            return SyncEditResponse.builder().results(List.of()).build();
+        }
+        if (edits.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Sync batch too large: " + edits.size() + " edits (max " + MAX_BATCH_SIZE + ")");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> mergeEdits(edits));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_MERGE_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("Modification concurrente pendant la fusion d'un lot, nouvel essai ({}/{})", attempt, MAX_MERGE_ATTEMPTS);
+            }
+        }
+    }
+
+    private SyncEditResponse mergeEdits(List<SyncEdit> edits) {
+        Set<UUID> visitIds = idsOf(edits, ChangeEntityType.VISIT);
+        Set<UUID> familyIds = idsOf(edits, ChangeEntityType.FAMILY);
+        Map<UUID, Visit> visits = visitIds.isEmpty() ? Map.of() : visitRepository.findAllForMergeByIdIn(visitIds).stream()
+                .collect(Collectors.toMap(Visit::getId, Function.identity()));
+        Map<UUID, Family> families = familyIds.isEmpty() ? Map.of() : familyRepository.findAllById(familyIds).stream()
+                .collect(Collectors.toMap(Family::getId, Function.identity()));
+
+        // Une entité déjà modifiée dans ce lot n'est plus à sa version de base
+        Set<UUID> modified = new HashSet<>();
+        List<SyncEditResult> results = new ArrayList<>(edits.size());
+        for (SyncEdit edit : edits) {
+            results.add(applyEdit(edit, visits, families, modified));
+        }
+
+        // Le flush incrémente les versions (et détecte une modification concurrente pendant le lot)
+        visitRepository.flush();
+
+        int applied = 0;
+        int merged = 0;
+        int conflicts = 0;
+        int rejected = 0;
+        for (SyncEditResult result : results) {
+            switch (result.getStatus()) {
+                case APPLIED -> applied++;
+                case MERGED -> merged++;
+                case CONFLICT -> conflicts++;
+                default -> rejected++;
+            }
+            if (result.getStatus() != SyncStatus.REJECTED) {
+                result.setVersion(result.getEntityType() == ChangeEntityType.VISIT
+                        ? visits.get(result.getId()).getVersion()
+                        : families.get(result.getId()).getVersion());
+            }
+        }
+
+        log.info("Synchronisation de {} modifications : {} appliquées, {} fusionnées, {} en conflit, {} rejetées",
+                edits.size(), applied, merged, conflicts, rejected);
+        return SyncEditResponse.builder()
+                .received(edits.size())
+                .applied(applied)
+                .merged(merged)
+                .conflicts(conflicts)
+                .rejected(rejected)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Flux de modifications depuis le curseur since (0 = synchronisation complète)
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges getChanges(Long since, Integer limit) {
+        long cursor = since != null && since > 0 ? since : 0;
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_CHANGES_LIMIT : Math.min(limit, MAX_CHANGES_LIMIT);
+        List<ChangeLogEntry> entries = changeLogRepository.findChangesAfter(cursor, PageRequest.of(0, pageSize));
+
+        // Seule la dernière opération de chaque entité compte dans la page
+        Map<ChangeEntityType, Map<UUID, ChangeOperation>> latest = new EnumMap<>(ChangeEntityType.class);
+        for (ChangeLogEntry entry : entries) {
+            latest.computeIfAbsent(entry.getEntityType(), type -> new LinkedHashMap<>())
+                    .put(entry.getEntityId(), entry.getOperation());
+            cursor = entry.getSeq();
+        }
+
+        Map<ChangeEntityType, List<UUID>> upserted = new EnumMap<>(ChangeEntityType.class);
+        List<SyncTombstone> deleted = new ArrayList<>();
+        latest.forEach((entityType, operations) -> operations.forEach((id, operation) -> {
+            if (operation == ChangeOperation.DELETE) {
+                deleted.add(SyncTombstone.builder().entityType(entityType).id(id).build());
+            } else {
+                upserted.computeIfAbsent(entityType, type -> new ArrayList<>()).add(id);
+            }
+        }));
+
+        return SyncChanges.builder()
+                .cursor(cursor)
+                .hasMore(entries.size() == pageSize)
+                .families(loadChanged(ChangeEntityType.FAMILY, upserted, familyRepository::findSummariesByIdIn,
+                        FamilySummary::getId, deleted))
+                .visits(loadChanged(ChangeEntityType.VISIT, upserted, visitRepository::findSummariesByIdIn,
+                        VisitSummary::getId, deleted))
+                .aidTypes(loadChanged(ChangeEntityType.AID_TYPE, upserted, aidTypeRepository::findAllById,
+                        AidType::getId, deleted))
+                .deleted(deleted)
+                .build();
+    }
+
+    /**
+     * État actuel des entités modifiées. Une entité introuvable a été supprimée depuis (suppression publiée dans
+     * le même lot que la modification, dans un ordre quelconque) : elle est servie comme tombstone.
+     */
+    private <T> List<T> loadChanged(ChangeEntityType entityType, Map<ChangeEntityType, List<UUID>> upserted,
+                                    Function<List<UUID>, List<T>> loader, Function<T, UUID> idOf,
+                                    List<SyncTombstone> deleted) {
+        List<UUID> ids = upserted.get(entityType);
+        if (ids == null) {
+            return List.of();
+        }
+        List<T> found = loader.apply(ids);
+        if (found.size() < ids.size()) {
+            Set<UUID> foundIds = found.stream().map(idOf).collect(Collectors.toSet());
+            ids.stream()
+                    .filter(id -> !foundIds.contains(id))
+                    .forEach(id -> deleted.add(SyncTombstone.builder().entityType(entityType).id(id).build()));
+        }
+        return found;
+    }
+
+    private SyncEditResult applyEdit(SyncEdit edit, Map<UUID, Visit> visits, Map<UUID, Family> families,
+                                     Set<UUID> modified) {
+        if (edit.getEntityType() == null || edit.getId() == null) {
+            return rejectedEdit(edit, "entityType and id are required");
+        }
+        if (edit.getChanges() == null || edit.getChanges().isEmpty()) {
+            return rejectedEdit(edit, "No changes");
+        }
+        switch (edit.getEntityType()) {
+            case VISIT -> {
+                Visit visit = visits.get(edit.getId());
+                if (visit == null) {
+                    return rejectedEdit(edit, "Visit not found with id: " + edit.getId());
+                }
+                return mergeEdit(edit, visit, visit.getVersion(), VISIT_FIELDS, modified,
+                        merge -> visitService.applyChanges(visit, merge::applyTo));
+            }
+            case FAMILY -> {
+                Family family = families.get(edit.getId());
+                if (family == null) {
+                    return rejectedEdit(edit, "Family not found with id: " + edit.getId());
+                }
+                return mergeEdit(edit, family, family.getVersion(), FAMILY_FIELDS, modified,
+                        merge -> familyService.applyChanges(family, merge::applyTo));
+            }
+            default -> {
+                return rejectedEdit(edit, "Unsupported entity type: " + edit.getEntityType());
+            }
+        }
+    }
+
+    private <E> SyncEditResult mergeEdit(SyncEdit edit, E entity, long version, FieldMerger<E> fields,
+                                         Set<UUID> modified, Consumer<FieldMerger.Merge<E>> apply) {
+        boolean upToDate = edit.getBaseVersion() != null && edit.getBaseVersion() == version
+                && !modified.contains(edit.getId());
+        FieldMerger.Merge<E> merge;
+        try {
+            merge = fields.merge(entity, upToDate, edit.getBase(), edit.getChanges(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            return rejectedEdit(edit, e.getMessage());
+        }
+
+        SyncEditResult.SyncEditResultBuilder result = SyncEditResult.builder()
+                .entityType(edit.getEntityType())
+                .id(edit.getId())
+                .version(version);
+        if (merge.hasConflicts()) {
+            return result.status(SyncStatus.CONFLICT).conflicts(merge.conflicts()).build();
+        }
+        if (!merge.updates().isEmpty()) {
+            apply.accept(merge);
+            modified.add(edit.getId());
+        }
+        return result.status(upToDate ? SyncStatus.APPLIED : SyncStatus.MERGED).build();
+    }
+
+    private SyncEditResult rejectedEdit(SyncEdit edit, String message) {
+        return SyncEditResult.builder()
+                .entityType(edit.getEntityType())
+                .id(edit.getId())
+                .status(SyncStatus.REJECTED)
+                .message(message)
+                .build();
+    }
+
+    private Set<UUID> idsOf(List<SyncEdit> edits, ChangeEntityType entityType) {
+        return edits.stream()
+                .filter(edit -> edit.getEntityType() == entityType && edit.getId() != null)
+                .map(SyncEdit::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private String validateAidDistributions(VisitSyncItem item, AidTypeCatalog aidTypes) {
+        if (item.getAidDistributions() == null) {
+            return null;
+        }
+        for (AidDistributionSyncItem aid : item.getAidDistributions()) {
+            if (aidTypes.byId(aid.getAidTypeId()).isEmpty()) {
+                return "Aid type not found with id: " + aid.getAidTypeId();
+            }
+            if (aid.getQuantity() == null) {
+                return "Aid distribution quantity is required";
+            }
+        }
+        return null;
+    }
+
+    private Visit toVisit(VisitSyncItem item, Family family, User volunteer, AidTypeCatalog aidTypes) {
+        Visit visit = Visit.builder()
+                .clientId(item.getClientId())
+                .family(family)
+                .volunteer(volunteer)
+                .visitDate(item.getVisitDate() != null ? item.getVisitDate() : LocalDate.now())
+                .observations(item.getObservations())
+                .locationLat(item.getLocationLat())
+                .locationLng(item.getLocationLng())
+                .nextVisitDate(item.getNextVisitDate())
+                .synced(true)
+                .recordedAt(item.getRecordedAt() != null ? item.getRecordedAt() : LocalDateTime.now())
+                .build();
+        if (item.getVisitType() != null) {
+            visit.setVisitType(item.getVisitType());
+        }
+        if (item.getIdentifiedNeeds() != null) {
+            visit.getIdentifiedNeeds().addAll(item.getIdentifiedNeeds());
+        }
+        if (item.getAidDistributions() != null) {
+            for (AidDistributionSyncItem aid : item.getAidDistributions()) {
+                AidType aidType = aidTypes.byId(aid.getAidTypeId()).orElseThrow();
+                visit.addAidDistribution(AidDistribution.builder()
+                        // Référence (proxy) : l'instance du catalogue est partagée et détachée
+                        .aidType(aidTypeRepository.getReferenceById(aidType.getId()))
+                        .description(aid.getDescription())
+                        .quantity(aid.getQuantity())
+                        .unit(aid.getUnit() != null ? aid.getUnit() : aidType.getUnit())
+                        .expirationDate(aid.getExpirationDate())
+                        .notes(aid.getNotes())
+                        .distributedAt(aid.getDistributedAt() != null ? aid.getDistributedAt() : visit.getRecordedAt())
+                        .build());
+            }
+        }
+        return visit;
+    }
+
+    private VisitSyncResult rejected(UUID clientId, String message) {
+        return VisitSyncResult.builder()
+                .clientId(clientId)
+                .status(SyncStatus.REJECTED)
+                .message(message)
+                .build();
+    }
+}
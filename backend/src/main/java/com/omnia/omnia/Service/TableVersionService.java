@@ -0,0 +1,81 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs de version par table (familles, visites, types d'aide), incrémentés après chaque commit
+ * qui modifie la table. Servent à calculer ETag / Last-Modified sans lire la base ni hacher le corps.
+ * Compteurs en mémoire : l'époque de démarrage fait partie de l'ETag, un redémarrage invalide donc
+ * les ETags émis précédemment.
+ */
+@Service
+public class TableVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<ChangeEntityType, TableVersion> versions = new EnumMap<>(ChangeEntityType.class);
+
+    public TableVersionService() {
+        long now = System.currentTimeMillis();
+        for (ChangeEntityType type : ChangeEntityType.values()) {
+            versions.put(type, new TableVersion(now));
+        }
+    }
+
+    /**
+     * Incrément après le commit : un ETag n'est jamais associé à des données pas encore visibles
+     */
+    public void markChanged(ChangeEntityType type) {
+        AfterCommit.run(() -> versions.get(type).bump());
+    }
+
+    /**
+     * ETag faible (la même version vaut pour JSON, CBOR et Smile) et date de dernière modification
+     * combinant les tables dont dépend la ressource
+     */
+    public Stamp stamp(String scope, ChangeEntityType... types) {
+        StringBuilder etag = new StringBuilder("W/\"").append(scope).append('-').append(epoch);
+        long lastModified = 0;
+        for (ChangeEntityType type : types) {
+            TableVersion version = versions.get(type);
+            // Lecture de la date avant le compteur : jamais de date plus récente que la version annoncée
+            lastModified = Math.max(lastModified, version.lastModified);
+            etag.append('-').append(version.counter.get());
+        }
+        return new Stamp(etag.append('"').toString(), lastModified);
+    }
+
+    /**
+     * Variante pour les ressources qui dépendent aussi de la date du jour (statistiques "ce mois", "depuis") :
+     * la version change à minuit même sans écriture
+     */
+    public Stamp dailyStamp(String scope, ChangeEntityType... types) {
+        LocalDate today = LocalDate.now();
+        Stamp stamp = stamp(scope + "-" + today, types);
+        long startOfDay = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Stamp(stamp.etag(), Math.max(stamp.lastModified(), startOfDay));
+    }
+
+    public record Stamp(String etag, long lastModified) {
+    }
+
+    private static final class TableVersion {
+        private final AtomicLong counter = new AtomicLong();
+        private volatile long lastModified;
+
+        private TableVersion(long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        private void bump() {
+            counter.incrementAndGet();
+            lastModified = System.currentTimeMillis();
+        }
+    }
+}
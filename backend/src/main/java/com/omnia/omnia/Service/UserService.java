@@ -4,6 +4,7 @@ package com.omnia.omnia.Service;
 import com.omnia.omnia.Entities.Role;
 import com.omnia.omnia.Entities.User;
 import com.omnia.omnia.Repository.UserRepository;
+import com.omnia.omnia.dto.UserSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -18,9 +20,10 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    public List<UserSummary> findAll() {
+        return toSummaries(userRepository.findAll());
     }
 
     public User findById(UUID id) {
@@ -28,12 +31,16 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
+    public UserSummary findSummaryById(UUID id) {
+        return toSummary(findById(id));
+    }
+
     public User findByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
 
-    public User create(User user) {
+    public UserSummary create(User user) {
         // Vérifier l'unicité de l'email
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new RuntimeException("User with email '" + user.getEmail() + "' already exists");
@@ -47,10 +54,10 @@ public class UserService {
             user.setActive(true);
         }
 
-        return userRepository.save(user);
+        return toSummary(userRepository.save(user));
     }
 
-    public User update(UUID id, User userDetails) {
+    public UserSummary update(UUID id, User userDetails) {
         User user = findById(id);
 
         // Ne pas permettre de changer l'email via update
@@ -62,22 +69,25 @@ public class UserService {
         user.setRole(userDetails.getRole());
         user.setActive(userDetails.getActive());
 
-        return userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
+        return toSummary(userRepository.save(user));
     }
 
     public void delete(UUID id) {
         User user = findById(id);
         userRepository.delete(user);
+        userDetailsService.evict(user.getEmail());
     }
 
     public User updatePassword(UUID id, String newPassword) {
         User user = findById(id);
         // TODO: Hasher le mot de passe en production
         user.setPassword(newPassword);
+        userDetailsService.evict(user.getEmail());
         return userRepository.save(user);
     }
 
-    public User login(String email, String password) {
+    public UserSummary login(String email, String password) {
         User user = findByEmail(email);
 
         // TODO: Comparer les mots de passe hashés en production
@@ -91,32 +101,34 @@ public class UserService {
 
         // Mettre à jour la dernière connexion
         user.setLastLoginAt(LocalDateTime.now());
-        return userRepository.save(user);
+        return toSummary(userRepository.save(user));
     }
 
-    public List<User> findByRole(String role) {
+    public List<UserSummary> findByRole(String role) {
         try {
             Role userRole = Role.valueOf(role.toUpperCase());
-            return userRepository.findByRole(userRole);
+            return toSummaries(userRepository.findByRole(userRole));
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid role: " + role);
         }
     }
 
-    public List<User> findActiveUsers() {
-        return userRepository.findByActiveTrue();
+    public List<UserSummary> findActiveUsers() {
+        return toSummaries(userRepository.findByActiveTrue());
     }
 
-    public User deactivateUser(UUID id) {
+    public UserSummary deactivateUser(UUID id) {
         User user = findById(id);
         user.setActive(false);
-        return userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
+        return toSummary(userRepository.save(user));
     }
 
-    public User activateUser(UUID id) {
+    public UserSummary activateUser(UUID id) {
         User user = findById(id);
         user.setActive(true);
-        return userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
+        return toSummary(userRepository.save(user));
     }
 
     public long countUsers() {
@@ -126,4 +138,23 @@ public class UserService {
     public long countByRole(String role) {
         return findByRole(role).size();
     }
+
+    // Jamais d'entité User (mot de passe) dans les réponses REST
+    private UserSummary toSummary(User user) {
+        return UserSummary.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .role(user.getRole())
+                .active(user.getActive())
+                .createdAt(user.getCreatedAt())
+                .lastLoginAt(user.getLastLoginAt())
+                .build();
+    }
+
+    private List<UserSummary> toSummaries(List<User> users) {
+        return users.stream().map(this::toSummary).collect(Collectors.toList());
+    }
 }
\ No newline at end of file
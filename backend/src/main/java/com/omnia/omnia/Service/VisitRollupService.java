@@ -0,0 +1,141 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Entities.Visit;
+import com.omnia.omnia.Entities.VisitDailyRollup;
+import com.omnia.omnia.Entities.VisitType;
+import com.omnia.omnia.Repository.VisitDailyRollupRepository;
+import com.omnia.omnia.Repository.VisitRepository;
+import com.omnia.omnia.dto.DailyVisitCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintenance de la table visit_daily_rollup.
+ * Chaque visite compte dans le bucket (visitDate, visitType, priorité actuelle de la famille).
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class VisitRollupService {
+
+    private final VisitDailyRollupRepository rollupRepository;
+    private final VisitRepository visitRepository;
+    private final TableVersionService tableVersionService;
+
+    public void onVisitCreated(Visit visit) {
+        add(visit.getVisitDate(), visit.getVisitType(), visit.getFamily().getPriorityLevel(), 1);
+    }
+
+    public void onVisitDeleted(Visit visit) {
+        add(visit.getVisitDate(), visit.getVisitType(), visit.getFamily().getPriorityLevel(), -1);
+    }
+
+    /**
+     * Variante groupée (synchronisation hors-ligne) : une mise à jour par bucket et non par visite
+     */
+    public void onVisitsCreated(Collection<Visit> visits) {
+        Map<BucketKey, Long> deltas = new HashMap<>();
+        for (Visit visit : visits) {
+            BucketKey key = new BucketKey(visit.getVisitDate(), normalize(visit.getVisitType()),
+                    normalize(visit.getFamily().getPriorityLevel()));
+            deltas.merge(key, 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) -> add(key.date(), key.type(), key.priority(), delta));
+    }
+
+    /**
+     * A appeler avant la modification de la visite (oldDate / oldType = valeurs persistées)
+     */
+    public void onVisitUpdated(LocalDate oldDate, VisitType oldType, Visit visit) {
+        PriorityLevel priority = visit.getFamily().getPriorityLevel();
+        if (normalize(oldType) == normalize(visit.getVisitType()) && oldDate.equals(visit.getVisitDate())) {
+            return;
+        }
+        add(oldDate, oldType, priority, -1);
+        add(visit.getVisitDate(), visit.getVisitType(), priority, 1);
+    }
+
+    /**
+     * Déplace les visites d'une famille vers les buckets de sa nouvelle priorité
+     */
+    public void onFamilyPriorityChanged(Family family, PriorityLevel oldPriority) {
+        if (normalize(oldPriority) == normalize(family.getPriorityLevel())) {
+            return;
+        }
+        for (DailyVisitCount count : visitRepository.countGroupByDayForFamily(family)) {
+            add(count.getVisitDate(), count.getVisitType(), oldPriority, -count.getTotal());
+            add(count.getVisitDate(), count.getVisitType(), family.getPriorityLevel(), count.getTotal());
+        }
+    }
+
+    /**
+     * Reconstruit entièrement l'agrégat à partir de la table visits (backfill)
+     */
+    public int rebuild() {
+        Map<String, VisitDailyRollup> buckets = new HashMap<>();
+        for (DailyVisitCount count : visitRepository.countGroupByDay()) {
+            VisitType type = normalize(count.getVisitType());
+            PriorityLevel priority = normalize(count.getPriorityLevel());
+            VisitDailyRollup bucket = buckets.computeIfAbsent(count.getVisitDate() + "|" + type + "|" + priority,
+                    key -> VisitDailyRollup.builder()
+                            .rollupDate(count.getVisitDate())
+                            .visitType(type)
+                            .priorityLevel(priority)
+                            .build());
+            bucket.setVisitCount(bucket.getVisitCount() + count.getTotal());
+        }
+
+        rollupRepository.deleteAllInBatch();
+        List<VisitDailyRollup> rows = new ArrayList<>(buckets.values());
+        rollupRepository.saveAll(rows);
+        // Les statistiques du dashboard lues dans l'agrégat changent sans écriture sur visits
+        tableVersionService.markChanged(ChangeEntityType.VISIT);
+        log.info("visit_daily_rollup reconstruit : {} buckets", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Backfill au premier démarrage si la table d'agrégat est vide
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && visitRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void add(LocalDate date, VisitType type, PriorityLevel priority, long delta) {
+        if (date == null || delta == 0) {
+            return;
+        }
+        rollupRepository.addToBucket(UUID.randomUUID(), date, normalize(type).name(), normalize(priority).name(), delta);
+    }
+
+    private record BucketKey(LocalDate date, VisitType type, PriorityLevel priority) {
+    }
+
+    // Valeurs par défaut des entités pour les colonnes nulles
+    private VisitType normalize(VisitType type) {
+        return type != null ? type : VisitType.REGULAR;
+    }
+
+    private PriorityLevel normalize(PriorityLevel priority) {
+        return priority != null ? priority : PriorityLevel.Medium;
+    }
+}
@@ -0,0 +1,110 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.Visit;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.Repository.VisitRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Planification des visites dénormalisée sur la famille :
+ * lastVisitDate = date de la dernière visite, nextVisitDue = prochaine visite prévue lors de cette dernière visite.
+ * Une création ne fait qu'avancer les valeurs (sans requête) ; une modification ou une suppression
+ * qui touche la dernière visite les recalcule (index family_id, visit_date).
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class VisitScheduleService {
+
+    private final VisitRepository visitRepository;
+    private final FamilyRepository familyRepository;
+    private final FamilyDueQueueService familyDueQueueService;
+    private final ChangeLogService changeLogService;
+
+    public void onVisitCreated(Visit visit) {
+        Family family = visit.getFamily();
+        LocalDate lastVisitDate = family.getLastVisitDate();
+        LocalDate visitDate = visit.getVisitDate();
+        if (lastVisitDate == null || visitDate.isAfter(lastVisitDate)) {
+            apply(family, visitDate, visit.getNextVisitDate());
+        } else if (visitDate.equals(lastVisitDate)) {
+            apply(family, lastVisitDate, latest(family.getNextVisitDue(), visit.getNextVisitDate()));
+        }
+    }
+
+    public void onVisitsCreated(Collection<Visit> visits) {
+        visits.forEach(this::onVisitCreated);
+    }
+
+    public void onVisitUpdated(LocalDate oldVisitDate, LocalDate oldNextVisitDate, Visit visit) {
+        if (Objects.equals(oldVisitDate, visit.getVisitDate())
+                && Objects.equals(oldNextVisitDate, visit.getNextVisitDate())) {
+            return;
+        }
+        recompute(visit.getFamily());
+    }
+
+    /**
+     * À appeler après la suppression de la visite (la requête de recalcul déclenche le flush)
+     */
+    public void onVisitDeleted(Visit visit) {
+        Family family = visit.getFamily();
+        // Une visite antérieure à la dernière ne change pas la planification
+        if (family.getLastVisitDate() != null && visit.getVisitDate() != null
+                && visit.getVisitDate().isBefore(family.getLastVisitDate())) {
+            return;
+        }
+        recompute(family);
+    }
+
+    public void recompute(Family family) {
+        LocalDate lastVisitDate = visitRepository.findLastVisitDate(family);
+        LocalDate nextVisitDue = lastVisitDate != null ? visitRepository.findNextVisitDue(family, lastVisitDate) : null;
+        apply(family, lastVisitDate, nextVisitDue);
+    }
+
+    /**
+     * Calcule les colonnes pour les familles existantes (première mise en service), puis charge la file
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfNeeded() {
+        long unscheduled = familyRepository.countWithUnscheduledVisits();
+        if (unscheduled > 0) {
+            familyRepository.backfillLastVisitDates();
+            familyRepository.backfillNextVisitDues();
+            log.info("Planification des visites calculée ({} familles sans dernière visite)", unscheduled);
+        }
+        // Chargée après le commit du backfill
+        AfterCommit.run(familyDueQueueService::rebuild);
+    }
+
+    private void apply(Family family, LocalDate lastVisitDate, LocalDate nextVisitDue) {
+        if (Objects.equals(lastVisitDate, family.getLastVisitDate())
+                && Objects.equals(nextVisitDue, family.getNextVisitDue())) {
+            return;
+        }
+        family.setLastVisitDate(lastVisitDate);
+        family.setNextVisitDue(nextVisitDue);
+        familyDueQueueService.index(family);
+        changeLogService.recordUpsert(ChangeEntityType.FAMILY, family.getId());
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
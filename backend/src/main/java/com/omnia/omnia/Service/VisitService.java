@@ -1,17 +1,34 @@
 package com.omnia.omnia.Service;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnia.omnia.Entities.ChangeEntityType;
 import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.User;
 import com.omnia.omnia.Entities.Visit;
+import com.omnia.omnia.Entities.VisitType;
 import com.omnia.omnia.Repository.FamilyRepository;
 import com.omnia.omnia.Repository.VisitRepository;
+import com.omnia.omnia.dto.AidDistributionView;
+import com.omnia.omnia.dto.CursorPage;
+import com.omnia.omnia.dto.FamilyDue;
+import com.omnia.omnia.dto.VisitDetail;
+import com.omnia.omnia.dto.VisitSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -20,9 +37,59 @@ public class VisitService {
 
     private final VisitRepository visitRepository;
     private final FamilyRepository familyRepository;
+    private final VisitRollupService visitRollupService;
+    private final AidRollupService aidRollupService;
+    private final VisitScheduleService visitScheduleService;
+    private final FamilyDueQueueService familyDueQueueService;
+    private final ChangeLogService changeLogService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public List<VisitSummary> findAll() {
+        return visitRepository.findAllSummaries();
+    }
+
+    /**
+     * Pagination keyset (visitDate DESC, id DESC)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VisitSummary> findPage(String cursor, Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize);
+
+        List<VisitSummary> visits;
+        if (cursor == null || cursor.isBlank()) {
+            visits = visitRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            visits = visitRepository.findPageAfter(after.sortValueAsDate(), after.id(), limit);
+        }
 
-    public List<Visit> findAll() {
-        return visitRepository.findAll();
+        String nextCursor = null;
+        if (visits.size() == pageSize) {
+            VisitSummary last = visits.get(visits.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getVisitDate(), last.getId());
+        }
+        return CursorPage.<VisitSummary>builder()
+                .items(visits)
+                .size(visits.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Export NDJSON de toutes les visites, en flux (mémoire constante)
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (Stream<VisitSummary> visits = visitRepository.streamAll()) {
+            Iterator<VisitSummary> iterator = visits.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
     }
 
     public Visit findById(UUID id) {
@@ -30,7 +97,14 @@ public class VisitService {
                 .orElseThrow(() -> new RuntimeException("Visit not found with id: " + id));
     }
 
-    public Visit create(Visit visit, UUID familyId) {
+    @Transactional(readOnly = true)
+    public VisitDetail findDetailById(UUID id) {
+        return visitRepository.findDetailById(id)
+                .map(this::toDetail)
+                .orElseThrow(() -> new RuntimeException("Visit not found with id: " + id));
+    }
+
+    public VisitDetail create(Visit visit, UUID familyId) {
         Family family = familyRepository.findById(familyId)
                 .orElseThrow(() -> new RuntimeException("Family not found with id: " + familyId));
 
@@ -41,37 +115,114 @@ public class VisitService {
             visit.setVisitDate(LocalDate.now());
         }
 
-        return visitRepository.save(visit);
+        Visit saved = visitRepository.save(visit);
+        visitRollupService.onVisitCreated(saved);
+        aidRollupService.onVisitCreated(saved);
+        visitScheduleService.onVisitCreated(saved);
+        changeLogService.recordUpsert(ChangeEntityType.VISIT, saved.getId());
+        return toDetail(saved);
     }
 
-    public Visit update(UUID id, Visit visitDetails) {
-        Visit visit = findById(id);
-
-        visit.setVisitDate(visitDetails.getVisitDate());
-        visit.setVisitType(visitDetails.getVisitType());
-        visit.setObservations(visitDetails.getObservations());
-        visit.setLocationLat(visitDetails.getLocationLat());
-        visit.setLocationLng(visitDetails.getLocationLng());
-        visit.setNextVisitDate(visitDetails.getNextVisitDate());
+    public VisitDetail update(UUID id, Visit visitDetails) {
+        return toDetail(applyChanges(findById(id), visit -> {
+            visit.setVisitDate(visitDetails.getVisitDate());
+            visit.setVisitType(visitDetails.getVisitType());
+            visit.setObservations(visitDetails.getObservations());
+            visit.setLocationLat(visitDetails.getLocationLat());
+            visit.setLocationLng(visitDetails.getLocationLng());
+            visit.setNextVisitDate(visitDetails.getNextVisitDate());
+        }));
+    }
 
-        return visitRepository.save(visit);
+    /**
+     * Applique une modification à une visite chargée (mise à jour REST ou fusion de synchronisation)
+     * en maintenant l'agrégat et le journal des modifications
+     */
+    public Visit applyChanges(Visit visit, Consumer<Visit> changes) {
+        LocalDate oldVisitDate = visit.getVisitDate();
+        VisitType oldVisitType = visit.getVisitType();
+        LocalDate oldNextVisitDate = visit.getNextVisitDate();
+        changes.accept(visit);
+
+        visitRollupService.onVisitUpdated(oldVisitDate, oldVisitType, visit);
+        changeLogService.recordUpsert(ChangeEntityType.VISIT, visit.getId());
+        Visit saved = visitRepository.save(visit);
+        visitScheduleService.onVisitUpdated(oldVisitDate, oldNextVisitDate, saved);
+        return saved;
     }
 
     public void delete(UUID id) {
         Visit visit = findById(id);
+        visitRollupService.onVisitDeleted(visit);
+        aidRollupService.onVisitDeleted(visit);
         visitRepository.delete(visit);
+        visitScheduleService.onVisitDeleted(visit);
+        changeLogService.recordDelete(ChangeEntityType.VISIT, id);
     }
 
-    public List<Visit> findByFamily(UUID familyId) {
-        Family family = familyRepository.findById(familyId)
-                .orElseThrow(() -> new RuntimeException("Family not found"));
-        return visitRepository.findByFamilyOrderByVisitDateDesc(family);
+    @Transactional(readOnly = true)
+    public List<VisitSummary> findByFamily(UUID familyId) {
+        if (!familyRepository.existsById(familyId)) {
+            throw new RuntimeException("Family not found");
+        }
+        return visitRepository.findSummariesByFamilyId(familyId);
+    }
+
+    /**
+     * Liste de travail : familles dont la prochaine visite est prévue dans les withinDays jours (retards inclus)
+     */
+    @Transactional(readOnly = true)
+    public List<FamilyDue> findDue(int withinDays, int limit) {
+        if (withinDays < 0) {
+            throw new RuntimeException("withinDays must be positive or zero");
+        }
+        if (limit < 1 || limit > FamilyDueQueueService.MAX_LIMIT) {
+            throw new RuntimeException("limit must be between 1 and " + FamilyDueQueueService.MAX_LIMIT);
+        }
+        return familyDueQueueService.due(LocalDate.now().plusDays(withinDays), limit);
     }
 
-    public List<Visit> findRecentVisits() {
-        return visitRepository.findByVisitDateBetween(
+    @Transactional(readOnly = true)
+    public List<VisitSummary> findRecentVisits() {
+        return visitRepository.findSummariesByVisitDateBetween(
                 LocalDate.now().minusMonths(1),
                 LocalDate.now()
         );
     }
+
+    private VisitDetail toDetail(Visit visit) {
+        Family family = visit.getFamily();
+        User volunteer = visit.getVolunteer();
+        return VisitDetail.builder()
+                .id(visit.getId())
+                .visitDate(visit.getVisitDate())
+                .visitType(visit.getVisitType())
+                .observations(visit.getObservations())
+                .locationLat(visit.getLocationLat())
+                .locationLng(visit.getLocationLng())
+                .nextVisitDate(visit.getNextVisitDate())
+                .synced(visit.getSynced())
+                .recordedAt(visit.getRecordedAt())
+                .familyId(family.getId())
+                .familyReference(family.getReference())
+                .headOfFamily(family.getHeadOfFamily())
+                .volunteerId(volunteer != null ? volunteer.getId() : null)
+                .volunteerName(volunteer != null ? volunteer.getFirstName() + " " + volunteer.getLastName() : null)
+                .aidDistributions(visit.getAidDistributions().stream()
+                        .map(aid -> AidDistributionView.builder()
+                                .id(aid.getId())
+                                .aidTypeId(aid.getAidType().getId())
+                                .aidTypeName(aid.getAidType().getName())
+                                .description(aid.getDescription())
+                                .quantity(aid.getQuantity())
+                                .unit(aid.getUnit())
+                                .expirationDate(aid.getExpirationDate())
+                                .notes(aid.getNotes())
+                                .distributedAt(aid.getDistributedAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .identifiedNeeds(new ArrayList<>(visit.getIdentifiedNeeds()))
+                .version(visit.getVersion())
+                .build();
+    }
 }
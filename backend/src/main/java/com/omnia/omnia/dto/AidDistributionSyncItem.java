@@ -0,0 +1,24 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AidDistributionSyncItem {
+    private UUID aidTypeId;
+    private String description;
+    private Integer quantity;
+    private String unit;
+    private LocalDate expirationDate;
+    private String notes;
+    private LocalDateTime distributedAt;
+}
@@ -0,0 +1,18 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection : quantité distribuée et nombre de distributions d'un bucket
+ * (mois, type d'aide, priorité de la famille), selon les colonnes du regroupement
+ */
+public interface AidQuantity {
+    LocalDate getMonth();
+    UUID getAidTypeId();
+    PriorityLevel getPriorityLevel();
+    Long getQuantity();
+    Long getDistributions();
+}
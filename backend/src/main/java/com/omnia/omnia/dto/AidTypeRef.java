@@ -0,0 +1,21 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.AidCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AidTypeRef {
+    private UUID id;
+    private String name;
+    private AidCategory category;
+    private String unit;
+    private String icon;
+}
@@ -0,0 +1,14 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+import java.time.LocalDate;
+
+/**
+ * Projection : nombre de familles inscrites par (date, priorité)
+ */
+public interface DailyFamilyCount {
+    LocalDate getCreatedDate();
+    PriorityLevel getPriorityLevel();
+    Long getTotal();
+}
@@ -0,0 +1,16 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Entities.VisitType;
+
+import java.time.LocalDate;
+
+/**
+ * Projection : nombre de visites par (date, type, priorité de la famille)
+ */
+public interface DailyVisitCount {
+    LocalDate getVisitDate();
+    VisitType getVisitType();
+    PriorityLevel getPriorityLevel();
+    Long getTotal();
+}
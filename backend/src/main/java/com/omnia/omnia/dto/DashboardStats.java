@@ -0,0 +1,24 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardStats {
+    private long totalFamilies;
+    private long totalVisits;
+    private long visitsThisMonth;
+    private Map<String, Long> familiesByPriority;
+    private List<VisitSummary> recentVisits;
+    private long familiesWithLocation;
+    private Map<String, Long> visitsByType;
+    private List<Map<String, Object>> monthlyStats;
+}
@@ -0,0 +1,19 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DatasetSeedReport {
+    private int users;
+    private int families;
+    private int visits;
+    private int aidDistributions;
+    private int identifiedNeeds;
+    private long durationMillis;
+}
@@ -0,0 +1,30 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.AidCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiringAid {
+    private UUID id;
+    private LocalDate expirationDate;
+    private long daysLeft;
+    private UUID aidTypeId;
+    private String aidTypeName;
+    private AidCategory category;
+    private Integer quantity;
+    private String unit;
+    private String description;
+    private UUID visitId;
+    private UUID familyId;
+    private String familyReference;
+    private String headOfFamily;
+}
@@ -0,0 +1,20 @@
+package com.omnia.omnia.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection : distribution avec date d'expiration, et la visite / famille concernées
+ */
+public interface ExpiringAidRow {
+    UUID getId();
+    LocalDate getExpirationDate();
+    UUID getAidTypeId();
+    Integer getQuantity();
+    String getUnit();
+    String getDescription();
+    UUID getVisitId();
+    UUID getFamilyId();
+    String getFamilyReference();
+    String getHeadOfFamily();
+}
@@ -0,0 +1,14 @@
+package com.omnia.omnia.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection : distributions arrivant à expiration, totalisées par type d'aide
+ */
+public interface ExpiringAidTotal {
+    UUID getAidTypeId();
+    Long getDistributions();
+    Long getQuantity();
+    LocalDate getEarliestExpiration();
+}
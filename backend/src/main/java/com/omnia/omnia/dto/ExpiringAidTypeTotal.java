@@ -0,0 +1,24 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.AidCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiringAidTypeTotal {
+    private UUID aidTypeId;
+    private String aidTypeName;
+    private AidCategory category;
+    private String unit;
+    private long distributions;
+    private long quantity;
+    private LocalDate earliestExpiration;
+}
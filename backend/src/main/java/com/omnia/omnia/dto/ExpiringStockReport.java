@@ -0,0 +1,25 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Résultat du scan quotidien des aides arrivant à expiration
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiringStockReport {
+    private LocalDateTime scannedAt;
+    private LocalDate from;
+    private LocalDate to;
+    private long distributions;
+    private List<ExpiringAidTypeTotal> byAidType;
+}
@@ -0,0 +1,36 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FamilyDetail {
+    private UUID id;
+    private String reference;
+    private String headOfFamily;
+    private String phone;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private Integer familySize;
+    private String needsDescription;
+    private PriorityLevel priorityLevel;
+    private String notes;
+    private List<AidTypeRef> frequentAidTypes;
+    private LocalDate lastVisitDate;
+    private LocalDate nextVisitDue;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private long version;
+}
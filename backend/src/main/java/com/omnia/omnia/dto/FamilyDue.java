@@ -0,0 +1,27 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FamilyDue {
+    private UUID familyId;
+    private String reference;
+    private String headOfFamily;
+    private String phone;
+    private String address;
+    private PriorityLevel priorityLevel;
+    private LocalDate lastVisitDate;
+    private LocalDate nextVisitDue;
+    // Négatif si la visite est en retard
+    private long daysUntilDue;
+}
@@ -0,0 +1,20 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection : famille avec une prochaine visite prévue (chargement de la file des visites à faire)
+ */
+public interface FamilyDueRow {
+    UUID getId();
+    String getReference();
+    String getHeadOfFamily();
+    String getPhone();
+    String getAddress();
+    PriorityLevel getPriorityLevel();
+    LocalDate getLastVisitDate();
+    LocalDate getNextVisitDue();
+}
@@ -0,0 +1,15 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+import java.util.UUID;
+
+/**
+ * Projection : coordonnées d'une famille (chargement de l'index spatial)
+ */
+public interface FamilyGeoPoint {
+    UUID getId();
+    Double getLatitude();
+    Double getLongitude();
+    PriorityLevel getPriorityLevel();
+}
@@ -0,0 +1,13 @@
+package com.omnia.omnia.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection : champs indexés par la recherche approchée (nom, téléphone)
+ */
+public interface FamilyLookupDocument {
+    UUID getId();
+    String getReference();
+    String getHeadOfFamily();
+    String getPhone();
+}
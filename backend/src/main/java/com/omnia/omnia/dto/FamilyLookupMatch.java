@@ -0,0 +1,20 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FamilyLookupMatch {
+    private UUID id;
+    private String reference;
+    private String headOfFamily;
+    private String phone;
+    private double score; // 0..1
+}
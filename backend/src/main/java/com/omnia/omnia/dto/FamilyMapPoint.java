@@ -0,0 +1,19 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+import java.util.UUID;
+
+/**
+ * Projection : point de la carte (famille géolocalisée + nombre de visites)
+ */
+public interface FamilyMapPoint {
+    UUID getId();
+    Double getLatitude();
+    Double getLongitude();
+    String getHeadOfFamily();
+    String getReference();
+    PriorityLevel getPriorityLevel();
+    Integer getFamilySize();
+    Long getVisitCount();
+}
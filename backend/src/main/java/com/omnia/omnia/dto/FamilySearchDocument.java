@@ -0,0 +1,13 @@
+package com.omnia.omnia.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection : champs indexés par la recherche plein texte des familles
+ */
+public interface FamilySearchDocument {
+    UUID getId();
+    String getReference();
+    String getHeadOfFamily();
+    String getAddress();
+}
@@ -0,0 +1,29 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection : colonnes d'une famille, sans ses associations (listes, pagination, export)
+ */
+public interface FamilySummary {
+    UUID getId();
+    String getReference();
+    String getHeadOfFamily();
+    String getPhone();
+    String getAddress();
+    Double getLatitude();
+    Double getLongitude();
+    Integer getFamilySize();
+    String getNeedsDescription();
+    PriorityLevel getPriorityLevel();
+    String getNotes();
+    LocalDate getLastVisitDate();
+    LocalDate getNextVisitDue();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getVersion();
+}
@@ -0,0 +1,17 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FieldConflict {
+    private String field;
+    private Object baseValue;
+    private Object serverValue;
+    private Object clientValue;
+}
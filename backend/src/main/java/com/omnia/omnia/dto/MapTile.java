@@ -0,0 +1,20 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MapTile {
+    private int z;
+    private int x;
+    private int y;
+    private long totalFamilies;
+    private List<TileCluster> clusters;
+}
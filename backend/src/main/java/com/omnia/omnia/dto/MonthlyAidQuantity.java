@@ -0,0 +1,17 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+import java.util.UUID;
+
+/**
+ * Projection : aides distribuées par (année, mois, type d'aide, priorité), source de reconstruction de aid_monthly_rollup
+ */
+public interface MonthlyAidQuantity {
+    Integer getYear();
+    Integer getMonth();
+    UUID getAidTypeId();
+    PriorityLevel getPriorityLevel();
+    Long getQuantity();
+    Long getDistributions();
+}
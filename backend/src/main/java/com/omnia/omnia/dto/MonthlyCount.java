@@ -0,0 +1,10 @@
+package com.omnia.omnia.dto;
+
+/**
+ * Projection : nombre d'enregistrements par mois (année + mois)
+ */
+public interface MonthlyCount {
+    Integer getYear();
+    Integer getMonth();
+    Long getTotal();
+}
@@ -0,0 +1,25 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyFamily {
+    private UUID id;
+    private String reference;
+    private String headOfFamily;
+    private String phone;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private PriorityLevel priorityLevel;
+    private double distanceKm;
+}
@@ -0,0 +1,11 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.PriorityLevel;
+
+/**
+ * Projection : nombre de familles par niveau de priorité
+ */
+public interface PriorityCount {
+    PriorityLevel getPriorityLevel();
+    Long getTotal();
+}
@@ -0,0 +1,26 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.AidType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page du flux de modifications : état courant des entités modifiées et suppressions.
+ * cursor est à renvoyer comme paramètre since ; hasMore indique qu'une autre page est disponible.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncChanges {
+    private long cursor;
+    private boolean hasMore;
+    private List<FamilySummary> families;
+    private List<VisitSummary> visits;
+    private List<AidType> aidTypes;
+    private List<SyncTombstone> deleted;
+}
@@ -0,0 +1,26 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Modification hors-ligne d'une famille ou d'une visite.
+ * base contient les valeurs vues par le client (à baseVersion) pour les champs de changes.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncEdit {
+    private ChangeEntityType entityType;
+    private UUID id;
+    private Long baseVersion;
+    private Map<String, Object> base;
+    private Map<String, Object> changes;
+}
@@ -0,0 +1,24 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résultat d'un lot de modifications hors-ligne : un résultat par modification, dans l'ordre de la requête
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncEditResponse {
+    private int received;
+    private int applied;
+    private int merged;
+    private int conflicts;
+    private int rejected;
+    private List<SyncEditResult> results;
+}
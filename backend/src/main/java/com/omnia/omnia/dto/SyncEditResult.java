@@ -0,0 +1,23 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncEditResult {
+    private ChangeEntityType entityType;
+    private UUID id;
+    private SyncStatus status;
+    private Long version; // Version serveur après traitement (nouvelle version de base du client)
+    private List<FieldConflict> conflicts;
+    private String message;
+}
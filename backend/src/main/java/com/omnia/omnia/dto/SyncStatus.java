@@ -0,0 +1,10 @@
+package com.omnia.omnia.dto;
+
+public enum SyncStatus {
+    CREATED,
+    DUPLICATE,  // Déjà reçu (renvoi après coupure réseau) : pas de nouvelle écriture
+    REJECTED,
+    APPLIED,    // Modification appliquée telle quelle (version de base à jour)
+    MERGED,     // Fusionnée avec des modifications concurrentes sur d'autres champs
+    CONFLICT    // Champ modifié des deux côtés : rien n'est appliqué, résolution côté client
+}
@@ -0,0 +1,18 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncTombstone {
+    private ChangeEntityType entityType;
+    private UUID id;
+}
@@ -0,0 +1,21 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TileCluster {
+    private double latitude;   // Centroïde du cluster
+    private double longitude;
+    private long count;
+    private Map<String, Long> byPriority;
+    private UUID familyId;     // Renseigné uniquement si le cluster ne contient qu'une famille
+}
@@ -0,0 +1,26 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummary {
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+    private Role role;
+    private Boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastLoginAt;
+}
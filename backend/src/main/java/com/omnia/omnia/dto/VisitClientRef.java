@@ -0,0 +1,11 @@
+package com.omnia.omnia.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection : correspondance identifiant client / identifiant serveur d'une visite synchronisée
+ */
+public interface VisitClientRef {
+    UUID getId();
+    UUID getClientId();
+}
@@ -0,0 +1,36 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.VisitType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitDetail {
+    private UUID id;
+    private LocalDate visitDate;
+    private VisitType visitType;
+    private String observations;
+    private Double locationLat;
+    private Double locationLng;
+    private LocalDate nextVisitDate;
+    private Boolean synced;
+    private LocalDateTime recordedAt;
+    private UUID familyId;
+    private String familyReference;
+    private String headOfFamily;
+    private UUID volunteerId;
+    private String volunteerName;
+    private List<AidDistributionView> aidDistributions;
+    private List<String> identifiedNeeds;
+    private long version;
+}
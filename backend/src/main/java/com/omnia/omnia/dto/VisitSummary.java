@@ -0,0 +1,28 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.VisitType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection : visite à plat, avec l'identité de la famille et du bénévole (sans leurs entités)
+ */
+public interface VisitSummary {
+    UUID getId();
+    LocalDate getVisitDate();
+    VisitType getVisitType();
+    String getObservations();
+    Double getLocationLat();
+    Double getLocationLng();
+    LocalDate getNextVisitDate();
+    Boolean getSynced();
+    LocalDateTime getRecordedAt();
+    Long getVersion();
+    UUID getFamilyId();
+    String getFamilyReference();
+    String getHeadOfFamily();
+    UUID getVolunteerId();
+    String getVolunteerName();
+}
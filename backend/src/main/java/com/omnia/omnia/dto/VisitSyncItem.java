@@ -0,0 +1,33 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.VisitType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Visite saisie hors-ligne, identifiée par un UUID généré sur le terminal
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitSyncItem {
+    private UUID clientId;
+    private UUID familyId;
+    private LocalDate visitDate;
+    private VisitType visitType;
+    private String observations;
+    private Double locationLat;
+    private Double locationLng;
+    private LocalDate nextVisitDate;
+    private List<String> identifiedNeeds;
+    private List<AidDistributionSyncItem> aidDistributions;
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,23 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résultat d'un lot de synchronisation : un résultat par visite, dans l'ordre de la requête
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitSyncResponse {
+    private int received;
+    private int created;
+    private int duplicates;
+    private int rejected;
+    private List<VisitSyncResult> results;
+}
@@ -0,0 +1,19 @@
+package com.omnia.omnia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitSyncResult {
+    private UUID clientId;
+    private UUID visitId;
+    private SyncStatus status;
+    private String message;
+}
@@ -0,0 +1,11 @@
+package com.omnia.omnia.dto;
+
+import com.omnia.omnia.Entities.VisitType;
+
+/**
+ * Projection : nombre de visites par type
+ */
+public interface VisitTypeCount {
+    VisitType getVisitType();
+    Long getTotal();
+}
@@ -0,0 +1,43 @@
+package com.omnia.omnia.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions sur le nombre de requêtes SQL pour les tests d'intégration. Avec MockMvc la requête s'exécute sur le
+ * thread du test, le compteur de SqlStatementMonitor couvre donc toute la requête (sécurité comprise) :
+ * <pre>
+ * sql.assertAtMost(1, () -> mockMvc.perform(get("/api/dashboard/map")));
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private final SqlStatementMonitor sqlStatementMonitor;
+
+    public SqlStatementAssertions(SqlStatementMonitor sqlStatementMonitor) {
+        this.sqlStatementMonitor = sqlStatementMonitor;
+    }
+
+    /**
+     * Nombre de requêtes SQL émises sur le thread courant pendant l'action
+     */
+    public int count(Action action) throws Exception {
+        sqlStatementMonitor.reset();
+        action.run();
+        return sqlStatementMonitor.count();
+    }
+
+    public void assertAtMost(int max, Action action) throws Exception {
+        int count = count(action);
+        assertTrue(count <= max, () -> count + " requêtes SQL pour un maximum de " + max);
+    }
+
+    public void assertExactly(int expected, Action action) throws Exception {
+        assertEquals(expected, count(action), "Nombre de requêtes SQL");
+    }
+}
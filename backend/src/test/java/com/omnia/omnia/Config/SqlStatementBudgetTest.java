@@ -0,0 +1,103 @@
+package com.omnia.omnia.Config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budgets SQL des endpoints de lecture, sur une base H2 peuplée par DatasetSeeder. En mode STRICT, un endpoint
+ * qui dépasse le budget configuré (src/test/resources/application.properties) échoue : une régression N+1 fait
+ * échouer le test.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-budget;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.seed.families=200",
+        "app.seed.visits-per-family=3",
+        "app.seed.users=10",
+        "app.sql-budget.mode=STRICT"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "Admin")
+class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementMonitor sqlStatementMonitor;
+
+    @Autowired
+    private SqlBudgetProperties sqlBudgetProperties;
+
+    private SqlStatementAssertions sql;
+
+    @BeforeEach
+    void setUp() {
+        sql = new SqlStatementAssertions(sqlStatementMonitor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/dashboard/stats",
+            "/api/dashboard/aid-stats",
+            "/api/dashboard/monthly-stats?months=12",
+            "/api/dashboard/map",
+            "/api/families/page?size=50",
+            "/api/families/search?query=ben",
+            "/api/visits/page?size=50",
+            "/api/visits/due",
+            "/api/aid/expiring/summary",
+            "/api/sync/changes?limit=500"
+    })
+    void readEndpointsStayWithinTheirBudget(String url) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+    }
+
+    @Test
+    void mapDataIsASingleQuery() throws Exception {
+        sql.assertExactly(1, () -> mockMvc.perform(get("/api/dashboard/map")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void pagesAreASingleQuery() throws Exception {
+        sql.assertExactly(1, () -> mockMvc.perform(get("/api/families/page?size=50")).andExpect(status().isOk()));
+        sql.assertExactly(1, () -> mockMvc.perform(get("/api/visits/page?size=50")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void inMemoryIndexesDoNotQuery() throws Exception {
+        sql.assertExactly(0, () -> mockMvc.perform(get("/api/visits/due")).andExpect(status().isOk()));
+        sql.assertAtMost(1, () -> mockMvc.perform(get("/api/families/lookup?q=ben salah")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void strictModeFailsTheStatementOverBudget() {
+        Integer configured = sqlBudgetProperties.getMethods().put("DashboardController.getDashboardStats", 1);
+        try {
+            Exception exception = assertThrows(Exception.class, () -> mockMvc.perform(get("/api/dashboard/stats")));
+            Throwable cause = exception;
+            while (cause.getCause() != null && !(cause instanceof IllegalStateException)) {
+                cause = cause.getCause();
+            }
+            assertTrue(cause.getMessage().startsWith("Budget SQL dépassé : DashboardController.getDashboardStats"),
+                    cause.getMessage());
+        } finally {
+            if (configured != null) {
+                sqlBudgetProperties.getMethods().put("DashboardController.getDashboardStats", configured);
+            } else {
+                sqlBudgetProperties.getMethods().remove("DashboardController.getDashboardStats");
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.omnia.omnia.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnia.omnia.dto.FieldConflict;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fusion à trois voies (base du client, valeur serveur, valeur client) des modifications hors-ligne.
+ */
+class FieldMergerTest {
+
+    private static final FieldMerger<Note> FIELDS = new FieldMerger<Note>()
+            .scalar("title", String.class, Note::getTitle, Note::setTitle)
+            .scalar("count", Integer.class, Note::getCount, Note::setCount)
+            .stringSet("tags", Note::getTags);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void fieldChangedOnBothSidesIsAConflict() {
+        Note note = new Note("serveur", 1, "a");
+
+        FieldMerger.Merge<Note> merge = merge(note, false, Map.of("title", "base"), Map.of("title", "client"));
+
+        assertTrue(merge.hasConflicts());
+        FieldConflict conflict = merge.conflicts().get(0);
+        assertEquals("title", conflict.getField());
+        assertEquals("base", conflict.getBaseValue());
+        assertEquals("serveur", conflict.getServerValue());
+        assertEquals("client", conflict.getClientValue());
+        assertTrue(merge.updates().isEmpty());
+    }
+
+    @Test
+    void fieldChangedOnlyByTheClientIsApplied() {
+        Note note = new Note("base", 1, "a");
+
+        FieldMerger.Merge<Note> merge = merge(note, false, Map.of("title", "base"), Map.of("title", "client"));
+        merge.applyTo(note);
+
+        assertFalse(merge.hasConflicts());
+        assertEquals("client", note.getTitle());
+    }
+
+    @Test
+    void fieldChangedOnlyByTheServerKeepsTheServerValue() {
+        Note note = new Note("serveur", 1, "a");
+
+        // title renvoyé tel que le client l'a reçu, seul count a été modifié hors-ligne
+        FieldMerger.Merge<Note> merge = merge(note, false, Map.of("title", "base", "count", 1),
+                Map.of("title", "base", "count", 5));
+        merge.applyTo(note);
+
+        assertFalse(merge.hasConflicts());
+        assertEquals("serveur", note.getTitle());
+        assertEquals(5, note.getCount());
+    }
+
+    @Test
+    void numericValuesAreConvertedToTheFieldType() {
+        Note note = new Note("titre", 1, "a");
+
+        FieldMerger.Merge<Note> merge = merge(note, false, Map.of("count", 1), Map.of("count", "7"));
+        merge.applyTo(note);
+
+        assertFalse(merge.hasConflicts());
+        assertEquals(7, note.getCount());
+    }
+
+    @Test
+    void staleEditWithoutBaseValueConflictsOnlyWhenValuesDiffer() {
+        Note note = new Note("serveur", 1, "a");
+
+        assertTrue(merge(note, false, null, Map.of("title", "client")).hasConflicts());
+
+        FieldMerger.Merge<Note> same = merge(note, false, null, Map.of("title", "serveur"));
+        assertFalse(same.hasConflicts());
+        assertTrue(same.updates().isEmpty());
+    }
+
+    @Test
+    void upToDateEditIsAppliedWithoutBaseValues() {
+        Note note = new Note("serveur", 1, "a", "b");
+
+        FieldMerger.Merge<Note> merge = merge(note, true, null, Map.of("title", "client", "tags", List.of("b", "c")));
+        merge.applyTo(note);
+
+        assertFalse(merge.hasConflicts());
+        assertEquals("client", note.getTitle());
+        assertEquals(List.of("b", "c"), note.getTags());
+    }
+
+    @Test
+    void stringSetAdditionsAndRemovalsFromBothSidesAreCombined() {
+        // Base [a, b] ; le serveur a ajouté c ; le client a retiré a et ajouté d
+        Note note = new Note("titre", 1, "a", "b", "c");
+        List<String> tags = note.getTags();
+
+        FieldMerger.Merge<Note> merge = merge(note, false, Map.of("tags", List.of("a", "b")),
+                Map.of("tags", List.of("b", "d")));
+        merge.applyTo(note);
+
+        assertFalse(merge.hasConflicts());
+        assertEquals(List.of("b", "c", "d"), note.getTags());
+        // Même instance de collection (suivie par Hibernate)
+        assertSame(tags, note.getTags());
+    }
+
+    @Test
+    void stringSetWithoutBaseOnlyAddsValues() {
+        Note note = new Note("titre", 1, "a");
+
+        FieldMerger.Merge<Note> merge = merge(note, false, null, Map.of("tags", List.of("b")));
+        merge.applyTo(note);
+
+        assertEquals(List.of("a", "b"), note.getTags());
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        Note note = new Note("titre", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> merge(note, true, null, Map.of("owner", "x")));
+    }
+
+    private FieldMerger.Merge<Note> merge(Note note, boolean upToDate, Map<String, Object> base,
+                                          Map<String, Object> changes) {
+        return FIELDS.merge(note, upToDate, base, changes, objectMapper);
+    }
+
+    private static final class Note {
+        private String title;
+        private Integer count;
+        private final List<String> tags;
+
+        Note(String title, Integer count, String... tags) {
+            this.title = title;
+            this.count = count;
+            this.tags = new ArrayList<>(List.of(tags));
+        }
+
+        String getTitle() {
+            return title;
+        }
+
+        void setTitle(String title) {
+            this.title = title;
+        }
+
+        Integer getCount() {
+            return count;
+        }
+
+        void setCount(Integer count) {
+            this.count = count;
+        }
+
+        List<String> getTags() {
+            return tags;
+        }
+    }
+}
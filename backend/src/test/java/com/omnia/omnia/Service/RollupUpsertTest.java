@@ -0,0 +1,111 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.AidMonthlyRollup;
+import com.omnia.omnia.Entities.FamilyDailyRollup;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.Entities.VisitDailyRollup;
+import com.omnia.omnia.Entities.VisitType;
+import com.omnia.omnia.Repository.AidMonthlyRollupRepository;
+import com.omnia.omnia.Repository.FamilyDailyRollupRepository;
+import com.omnia.omnia.Repository.VisitDailyRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Buckets d'agrégat créés par deux transactions concurrentes : la seconde première écriture ne doit pas échouer
+ * sur la contrainte d'unicité du bucket (et annuler la visite ou le lot synchronisé qui l'a déclenchée).
+ */
+@SpringBootTest
+class RollupUpsertTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private VisitDailyRollupRepository visitRollupRepository;
+
+    @Autowired
+    private AidMonthlyRollupRepository aidRollupRepository;
+
+    @Autowired
+    private FamilyDailyRollupRepository familyRollupRepository;
+
+    @Test
+    void concurrentFirstWritesToAVisitBucketAreMerged() throws Exception {
+        LocalDate date = LocalDate.of(1999, 1, 4);
+        concurrently(() -> visitRollupRepository.addToBucket(UUID.randomUUID(), date,
+                VisitType.REGULAR.name(), PriorityLevel.High.name(), 1));
+
+        List<VisitDailyRollup> buckets = visitRollupRepository.findAll().stream()
+                .filter(bucket -> bucket.getRollupDate().equals(date))
+                .toList();
+        assertEquals(1, buckets.size());
+        assertEquals(2L, buckets.get(0).getVisitCount());
+        assertEquals(VisitType.REGULAR, buckets.get(0).getVisitType());
+    }
+
+    @Test
+    void concurrentFirstWritesToAnAidBucketAreMerged() throws Exception {
+        LocalDate month = LocalDate.of(1999, 2, 1);
+        UUID aidTypeId = UUID.randomUUID();
+        concurrently(() -> aidRollupRepository.addToBucket(UUID.randomUUID(), month, aidTypeId,
+                PriorityLevel.Low.name(), 3, 1));
+
+        List<AidMonthlyRollup> buckets = aidRollupRepository.findAll().stream()
+                .filter(bucket -> bucket.getAidTypeId().equals(aidTypeId))
+                .toList();
+        assertEquals(1, buckets.size());
+        assertEquals(6L, buckets.get(0).getTotalQuantity());
+        assertEquals(2L, buckets.get(0).getDistributionCount());
+    }
+
+    @Test
+    void concurrentFirstWritesToAFamilyBucketAreMerged() throws Exception {
+        LocalDate date = LocalDate.of(1999, 3, 8);
+        concurrently(() -> familyRollupRepository.addToBucket(UUID.randomUUID(), date, PriorityLevel.Low.name(), 1));
+
+        List<FamilyDailyRollup> buckets = familyRollupRepository.findAll().stream()
+                .filter(bucket -> bucket.getRollupDate().equals(date))
+                .toList();
+        assertEquals(1, buckets.size());
+        assertEquals(2L, buckets.get(0).getFamilyCount());
+    }
+
+    /**
+     * Deux transactions écrivent le même bucket inexistant : la première garde le sien ouvert (non validé) pendant
+     * que la seconde écrit à son tour, puis les deux valident
+     */
+    private void concurrently(Runnable write) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            write.run();
+            firstWritten.countDown();
+            sleep(300);
+        }));
+        firstWritten.await(10, TimeUnit.SECONDS);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> write.run()));
+        first.get(30, TimeUnit.SECONDS);
+        second.get(30, TimeUnit.SECONDS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.omnia.omnia.Service;
+
+import com.omnia.omnia.Entities.ChangeEntityType;
+import com.omnia.omnia.Entities.Family;
+import com.omnia.omnia.Entities.Visit;
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.Repository.VisitRepository;
+import com.omnia.omnia.dto.FamilySummary;
+import com.omnia.omnia.dto.SyncChanges;
+import com.omnia.omnia.dto.SyncEdit;
+import com.omnia.omnia.dto.SyncEditResponse;
+import com.omnia.omnia.dto.SyncEditResult;
+import com.omnia.omnia.dto.SyncStatus;
+import com.omnia.omnia.dto.VisitSyncItem;
+import com.omnia.omnia.dto.VisitSyncResponse;
+import com.omnia.omnia.dto.VisitSyncResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Synchronisation hors-ligne face aux écritures concurrentes (renvois parallèles d'un même lot, modification REST
+ * pendant une fusion, transactions longues validées après des transactions plus récentes).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sync;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.seed.families=20",
+        "app.seed.visits-per-family=1",
+        "app.seed.users=3",
+        // Publication appelée explicitement par les tests
+        "app.sync.publish-interval-ms=3600000"
+})
+class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private UUID familyId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        familyId = familyRepository.findAllIds().get(0);
+    }
+
+    @Test
+    void concurrentResendReportsTheVisitAsDuplicate() throws Exception {
+        UUID resent = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+
+        // Un premier envoi a inséré la visite mais n'a pas encore validé sa transaction
+        CountDownLatch inserted = new CountDownLatch(1);
+        CompletableFuture<Void> firstSend = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            Family family = familyRepository.findById(familyId).orElseThrow();
+            visitRepository.saveAndFlush(Visit.builder()
+                    .clientId(resent)
+                    .family(family)
+                    .visitDate(LocalDate.now())
+                    .build());
+            inserted.countDown();
+            sleep(500);
+        }));
+        inserted.await(10, TimeUnit.SECONDS);
+
+        VisitSyncResponse response = syncService.syncVisits(List.of(item(resent), item(fresh)), null);
+        firstSend.get(30, TimeUnit.SECONDS);
+
+        Map<UUID, VisitSyncResult> results = response.getResults().stream()
+                .collect(Collectors.toMap(VisitSyncResult::getClientId, result -> result));
+        assertEquals(SyncStatus.DUPLICATE, results.get(resent).getStatus());
+        assertNotNull(results.get(resent).getVisitId());
+        assertEquals(SyncStatus.CREATED, results.get(fresh).getStatus());
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(2, visitRepository.findByClientIdIn(List.of(resent, fresh)).size());
+    }
+
+    @Test
+    void restEditCommittedDuringTheMergeIsMergedAgainstTheFreshRow() throws Exception {
+        UUID familyId = familyRepository.findAllIds().get(3);
+        Family before = familyRepository.findById(familyId).orElseThrow();
+
+        // Modification REST en cours : ligne verrouillée, version incrémentée à son commit
+        CountDownLatch updated = new CountDownLatch(1);
+        CompletableFuture<Void> restEdit = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            Family family = familyRepository.findById(familyId).orElseThrow();
+            family.setNotes("modifié en ligne");
+            familyRepository.saveAndFlush(family);
+            updated.countDown();
+            sleep(500);
+        }));
+        updated.await(10, TimeUnit.SECONDS);
+
+        SyncEdit edit = SyncEdit.builder()
+                .entityType(ChangeEntityType.FAMILY)
+                .id(familyId)
+                .baseVersion(before.getVersion())
+                .base(Map.of("phone", before.getPhone()))
+                .changes(Map.of("phone", "+216 99 000 111"))
+                .build();
+        SyncEditResponse response = syncService.applyEdits(List.of(edit));
+        restEdit.get(30, TimeUnit.SECONDS);
+
+        SyncEditResult result = response.getResults().get(0);
+        assertEquals(SyncStatus.MERGED, result.getStatus());
+        Family after = familyRepository.findById(familyId).orElseThrow();
+        assertEquals("+216 99 000 111", after.getPhone());
+        assertEquals("modifié en ligne", after.getNotes());
+        assertEquals(after.getVersion(), result.getVersion());
+    }
+
+    @Test
+    void changeCommittedAfterAFasterOneIsServedAfterTheCursor() throws Exception {
+        List<UUID> familyIds = familyRepository.findAllIds();
+        UUID slow = familyIds.get(1);
+        UUID fast = familyIds.get(2);
+        long cursor = drainChanges();
+
+        // Transaction longue : sa modification est écrite avant celle de la transaction rapide, validée après
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowTransaction = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            changeLogService.recordUpsert(ChangeEntityType.FAMILY, slow);
+            recorded.countDown();
+            await(release);
+        }));
+        recorded.await(10, TimeUnit.SECONDS);
+        transaction.executeWithoutResult(status -> changeLogService.recordUpsert(ChangeEntityType.FAMILY, fast));
+        changeLogService.publish();
+
+        SyncChanges first = syncService.getChanges(cursor, null);
+        assertEquals(List.of(fast), familyIdsOf(first));
+
+        release.countDown();
+        slowTransaction.get(30, TimeUnit.SECONDS);
+        changeLogService.publish();
+
+        SyncChanges second = syncService.getChanges(first.getCursor(), null);
+        assertEquals(List.of(slow), familyIdsOf(second));
+        assertTrue(second.getCursor() > first.getCursor());
+    }
+
+    // Publie le journal en attente (jeu de données initial) et retourne le curseur de fin
+    private long drainChanges() {
+        while (changeLogService.publish() > 0) {
+            // lots de publication successifs
+        }
+        long cursor = 0;
+        SyncChanges changes;
+        do {
+            changes = syncService.getChanges(cursor, 2000);
+            cursor = changes.getCursor();
+        } while (changes.isHasMore());
+        return cursor;
+    }
+
+    private static List<UUID> familyIdsOf(SyncChanges changes) {
+        return changes.getFamilies().stream().map(FamilySummary::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private VisitSyncItem item(UUID clientId) {
+        return VisitSyncItem.builder()
+                .clientId(clientId)
+                .familyId(familyId)
+                .visitDate(LocalDate.now())
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.omnia.omnia.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compare deux résultats JMH au format JSON (par exemple deux commits) : score, erreur et écart relatif.
+ *
+ * Lancement : mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.omnia.omnia.bench.BenchmarkComparison -Dexec.args="avant.json apres.json"
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : BenchmarkComparison <référence.json> <candidat.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> candidate = read(new File(args[1]));
+
+        System.out.printf("%-80s %14s %14s %9s%n", "benchmark", "référence", "candidat", "écart");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode after = entry.getValue().get("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey()) ? baseline.get(entry.getKey()).get("primaryMetric") : null;
+            String unit = after.get("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14s %9s%n", entry.getKey(), "-", format(after, unit), "nouveau");
+                continue;
+            }
+            double change = (after.get("score").asDouble() - before.get("score").asDouble()) / before.get("score").asDouble();
+            System.out.printf("%-80s %14s %14s %+8.1f%%%n", entry.getKey(), format(before, unit), format(after, unit), change * 100);
+        }
+    }
+
+    // Clé : benchmark + paramètres (un benchmark paramétré produit une entrée par combinaison)
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText()
+                    .replace("com.omnia.omnia.bench.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                for (Map.Entry<String, JsonNode> param : params.properties()) {
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static String format(JsonNode metric, String unit) {
+        return String.format("%.2f %s", metric.get("score").asDouble(), unit);
+    }
+}
@@ -0,0 +1,36 @@
+package com.omnia.omnia.bench;
+
+import com.omnia.omnia.OmniaApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Contexte Spring complet sur une base H2 en mémoire, peuplée au démarrage par DatasetSeeder
+ * (graine fixe, dates relatives au jour du lancement) ; agrégats et index en mémoire sont construits par les backfills
+ * habituels, comme sur une base existante.
+ */
+final class BenchmarkDataset {
+
+    private BenchmarkDataset() {
+    }
+
+    static ConfigurableApplicationContext start(int families, int visitsPerFamily) {
+        return new SpringApplicationBuilder(OmniaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--app.jwt.secret=" + JwtBenchmark.SECRET,
+                        "--app.jwt.expiration=86400000",
+                        "--app.jwt.refresh-token.expiration=604800000",
+                        "--app.seed.families=" + families,
+                        "--app.seed.visits-per-family=" + visitsPerFamily,
+                        "--app.seed.users=20");
+    }
+}
@@ -0,0 +1,64 @@
+package com.omnia.omnia.bench;
+
+import com.omnia.omnia.Service.DashboardService;
+import com.omnia.omnia.dto.DashboardStats;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrégations du tableau de bord sur le jeu de données en mémoire (H2), services transactionnels réels
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DashboardBenchmark {
+
+    @Param({"2000"})
+    public int families;
+
+    @Param({"5"})
+    public int visitsPerFamily;
+
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start(families, visitsPerFamily);
+        dashboardService = context.getBean(DashboardService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DashboardStats dashboardStats() {
+        return dashboardService.getDashboardStats();
+    }
+
+    @Benchmark
+    public Map<String, Object> aidStats() {
+        return dashboardService.getAidStats();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> monthlyStats() {
+        return dashboardService.getMonthlyStats(12);
+    }
+
+    @Benchmark
+    public Map<String, Object> quickIndicators() {
+        return dashboardService.getQuickIndicators();
+    }
+
+    @Benchmark
+    public Map<String, Object> mapData() {
+        return dashboardService.getMapData();
+    }
+}
@@ -0,0 +1,63 @@
+package com.omnia.omnia.bench;
+
+import com.omnia.omnia.Repository.FamilyRepository;
+import com.omnia.omnia.Service.FamilyService;
+import com.omnia.omnia.dto.FamilyLookupMatch;
+import com.omnia.omnia.dto.FamilySummary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche de familles : requête LIKE de FamilyRepository.search, index inversé de FamilyService.search
+ * et recherche approchée (lookup)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FamilySearchBenchmark {
+
+    @Param({"2000"})
+    public int families;
+
+    @Param({"Ben Salah", "youssef", "FAM-S0001"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private FamilyRepository familyRepository;
+    private FamilyService familyService;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDataset.start(families, 1);
+        familyRepository = context.getBean(FamilyRepository.class);
+        familyService = context.getBean(FamilyService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<FamilySummary> repositorySearch() {
+        return readOnly.execute(status -> familyRepository.search(query));
+    }
+
+    @Benchmark
+    public List<FamilySummary> indexedSearch() {
+        return familyService.search(query, 20);
+    }
+
+    @Benchmark
+    public List<FamilyLookupMatch> lookup() {
+        return familyService.lookup(query, 10);
+    }
+}
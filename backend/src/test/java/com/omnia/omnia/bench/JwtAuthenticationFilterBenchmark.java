@@ -0,0 +1,65 @@
+package com.omnia.omnia.bench;
+
+import com.omnia.omnia.Config.JwtAuthenticationFilter;
+import com.omnia.omnia.Config.JwtService;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête du filtre JWT : requête anonyme, token déjà vérifié (cas courant), token à vérifier.
+ * Le chargement de l'utilisateur est remplacé par une instance fixe (cache utilisateur chaud).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = JwtBenchmark.jwtService();
+        UserDetails user = JwtBenchmark.user("benevole@omnia.tn");
+        filter = new JwtAuthenticationFilter(jwtService, username -> JwtBenchmark.user(username));
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Object anonymous() throws ServletException, IOException {
+        return filter(null);
+    }
+
+    @Benchmark
+    public Object bearerCached() throws ServletException, IOException {
+        return filter(token);
+    }
+
+    @Benchmark
+    public Object bearerUncached() throws ServletException, IOException {
+        jwtService.getVerifiedTokenCache().invalidate(token);
+        return filter(token);
+    }
+
+    private Object filter(String bearer) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/families/page");
+        if (bearer != null) {
+            request.addHeader("Authorization", "Bearer " + bearer);
+        }
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.omnia.omnia.bench;
+
+import com.omnia.omnia.Config.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService : signature d'un token, lecture avec et sans le cache des tokens déjà vérifiés
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    static final String SECRET = "5Np8K9mQ2vX7wB3yC6fR4tH8jL1nM0pS3uD7gA5kE9oI2rT6vY1zW4xQ8bN3cM7fJ0hK5lP9sU2eR6tY1wX4zA8";
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = jwtService();
+        user = user("benevole@omnia.tn");
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean parseCached() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public boolean parseUncached() {
+        jwtService.getVerifiedTokenCache().invalidate(token);
+        return jwtService.isTokenValid(token, user);
+    }
+
+    /**
+     * JwtService hors contexte Spring (mêmes valeurs que application.properties.template)
+     */
+    static JwtService jwtService() {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(service, "tokenCacheMaxSize", 10000L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    static UserDetails user(String email) {
+        return new User(email, "{noop}secret", List.of(new SimpleGrantedAuthority("ROLE_Volunteer")));
+    }
+}
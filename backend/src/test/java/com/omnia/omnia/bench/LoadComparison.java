@@ -0,0 +1,65 @@
+package com.omnia.omnia.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compare deux rapports JSON de LoadDriver (par exemple threads plateforme / threads virtuels) :
+ * débit, p99 et erreurs par requête.
+ *
+ * Lancement : mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.omnia.omnia.bench.LoadComparison -Dexec.args="plateforme.json virtuels.json"
+ */
+public class LoadComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : LoadComparison <référence.json> <candidat.json>");
+            System.exit(2);
+        }
+        JsonNode baselineReport = new ObjectMapper().readTree(new File(args[0]));
+        JsonNode candidateReport = new ObjectMapper().readTree(new File(args[1]));
+        Map<String, JsonNode> baseline = results(baselineReport);
+        Map<String, JsonNode> candidate = results(candidateReport);
+
+        System.out.printf("référence : %s, %d clients ; candidat : %s, %d clients%n%n",
+                label(baselineReport), baselineReport.get("concurrency").asInt(),
+                label(candidateReport), candidateReport.get("concurrency").asInt());
+        System.out.printf("%-36s %10s %10s %8s %10s %10s %8s %8s %8s%n",
+                "requête", "req/s réf", "req/s cand", "écart", "p99 réf", "p99 cand", "écart", "err réf", "err cand");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode after = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-36s %10s %10.1f %8s %10s %10.2f %8s %8s %8d%n", entry.getKey(), "-",
+                        after.get("throughput").asDouble(), "nouveau", "-", after.get("p99Millis").asDouble(), "", "-",
+                        after.get("errors").asLong());
+                continue;
+            }
+            System.out.printf("%-36s %10.1f %10.1f %+7.1f%% %10.2f %10.2f %+7.1f%% %8d %8d%n", entry.getKey(),
+                    before.get("throughput").asDouble(), after.get("throughput").asDouble(), change(before, after, "throughput"),
+                    before.get("p99Millis").asDouble(), after.get("p99Millis").asDouble(), change(before, after, "p99Millis"),
+                    before.get("errors").asLong(), after.get("errors").asLong());
+        }
+    }
+
+    private static Map<String, JsonNode> results(JsonNode report) {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        report.get("results").forEach(result -> results.put(result.get("request").asText(), result));
+        return results;
+    }
+
+    private static String label(JsonNode report) {
+        return report.hasNonNull("label") ? report.get("label").asText() : report.get("baseUrl").asText();
+    }
+
+    private static double change(JsonNode before, JsonNode after, String field) {
+        double reference = before.get(field).asDouble();
+        return reference == 0 ? 0 : (after.get(field).asDouble() - reference) / reference * 100;
+    }
+}
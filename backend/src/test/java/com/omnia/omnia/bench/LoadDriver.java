@@ -0,0 +1,427 @@
+package com.omnia.omnia.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.omnia.omnia.Entities.Role;
+import com.omnia.omnia.Service.DatasetSeeder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pilote de charge HTTP : rejoue un mélange de trafic bénévoles (recherche, fiche famille, liste des visites à faire,
+ * synchronisation) et coordinateurs (tableau de bord, listes paginées, stocks) contre une instance démarrée avec
+ * le jeu de données synthétique (app.seed.families > 0), puis affiche les percentiles de latence par requête.
+ *
+ * Lancement : mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.omnia.omnia.bench.LoadDriver
+ * -Dexec.args="--base-url=http://localhost:8080 --concurrency=50 --duration=60 --report=target/load-report.json"
+ * (--label nomme l'exécution dans le rapport, voir LoadComparison)
+ */
+public class LoadDriver {
+
+    private static final String[] SEARCH_TERMS = {"ben salah", "trabelsi", "youssef", "amira", "jlassi", "FAM-S000", "mejri", "ettadhamen"};
+    private static final String[] LOOKUP_TERMS = {"Mhamed Trablsi", "Yousef Gharbi", "Amira Jlasi", "Hamza Bouazizi"};
+
+    private final Options options;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<String> volunteerTokens = new ArrayList<>();
+    private final List<String> coordinatorTokens = new ArrayList<>();
+    private final List<String> familyIds = new ArrayList<>();
+    private final List<String> aidTypeIds = new ArrayList<>();
+
+    private final List<Operation> volunteerMix = List.of(
+            new Operation("GET /api/families/search", 30, w -> w.get("/api/families/search?limit=20&query=" + w.pick(SEARCH_TERMS))),
+            new Operation("GET /api/families/{id}", 20, w -> w.get("/api/families/" + w.pickFamily())),
+            new Operation("GET /api/visits/due", 15, w -> w.get("/api/visits/due?withinDays=7&limit=50")),
+            new Operation("GET /api/visits/family/{id}", 10, w -> w.get("/api/visits/family/" + w.pickFamily())),
+            new Operation("POST /api/sync/visits", 10, Worker::syncVisits),
+            new Operation("GET /api/sync/changes", 10, Worker::pullChanges),
+            new Operation("GET /api/families/lookup", 5, w -> w.get("/api/families/lookup?q=" + w.pick(LOOKUP_TERMS))));
+
+    private final List<Operation> coordinatorMix = List.of(
+            new Operation("GET /api/dashboard/stats", 25, w -> w.get("/api/dashboard/stats")),
+            new Operation("GET /api/dashboard/aid-stats", 15, w -> w.get("/api/dashboard/aid-stats")),
+            new Operation("GET /api/dashboard/monthly-stats", 10, w -> w.get("/api/dashboard/monthly-stats?months=12")),
+            new Operation("GET /api/dashboard/map", 10, w -> w.get("/api/dashboard/map")),
+            new Operation("GET /api/families/page", 20, w -> w.get("/api/families/page?size=50")),
+            new Operation("GET /api/visits/page", 10, w -> w.get("/api/visits/page?size=50")),
+            new Operation("GET /api/aid/expiring/summary", 10, w -> w.get("/api/aid/expiring/summary")));
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(Options.parse(args)).run();
+    }
+
+    LoadDriver(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    void run() throws Exception {
+        prepare();
+        System.out.printf("Charge : %d clients (%d coordinateurs), %ds de chauffe puis %ds de mesure sur %s%n",
+                options.concurrency, coordinators(), options.warmupSeconds, options.durationSeconds, options.baseUrl);
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        List<Worker> workers = new ArrayList<>(options.concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency);
+        for (int i = 0; i < options.concurrency; i++) {
+            boolean coordinator = i < coordinators();
+            Worker worker = new Worker(coordinator ? coordinatorMix : volunteerMix,
+                    coordinator ? coordinatorTokens.get(i % coordinatorTokens.size()) : volunteerTokens.get(i % volunteerTokens.size()),
+                    new Random(options.seed + i), warmupEnd, end);
+            workers.add(worker);
+            executor.execute(worker);
+        }
+        executor.shutdown();
+        executor.awaitTermination(options.warmupSeconds + options.durationSeconds + 60, TimeUnit.SECONDS);
+
+        report(workers);
+    }
+
+    private int coordinators() {
+        return (int) Math.round(options.concurrency * options.coordinatorShare);
+    }
+
+    /**
+     * Connexion des comptes générés, identifiants de familles et types d'aide utilisés par les requêtes
+     */
+    private void prepare() throws IOException, InterruptedException {
+        for (int i = 0; i < options.volunteers; i++) {
+            volunteerTokens.add(login(DatasetSeeder.email(Role.Volunteer, i)));
+        }
+        for (int i = 0; i < options.coordinators; i++) {
+            coordinatorTokens.add(login(DatasetSeeder.email(Role.Coordinator, i)));
+        }
+
+        String token = coordinatorTokens.get(0);
+        String cursor = null;
+        do {
+            JsonNode page = getJson("/api/families/page?size=500" + (cursor != null ? "&cursor=" + encode(cursor) : ""), token);
+            page.get("items").forEach(family -> familyIds.add(family.get("id").asText()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null && familyIds.size() < options.maxFamilies);
+        getJson("/api/aid-types/active", token).forEach(aidType -> aidTypeIds.add(aidType.get("id").asText()));
+
+        if (familyIds.isEmpty()) {
+            throw new IllegalStateException("Aucune famille : démarrer le serveur avec app.seed.families > 0");
+        }
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(options.baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(
+                                Map.of("email", email, "password", options.password))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Connexion impossible pour " + email + " : HTTP " + response.statusCode());
+        }
+        return mapper.readTree(response.body()).get("token").asText();
+    }
+
+    private JsonNode getJson(String path, String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Accept", "application/json")
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " : HTTP " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    private void report(List<Worker> workers) throws IOException {
+        Map<String, LatencyLog> merged = new TreeMap<>();
+        LatencyLog total = new LatencyLog();
+        for (Worker worker : workers) {
+            worker.latencies.forEach((name, log) -> {
+                merged.computeIfAbsent(name, n -> new LatencyLog()).addAll(log);
+                total.addAll(log);
+            });
+        }
+        merged.put("TOTAL", total);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%n%-36s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "requête", "nombre", "erreurs", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, LatencyLog> entry : merged.entrySet()) {
+            LatencyLog log = entry.getValue();
+            long[] sorted = log.sorted();
+            double throughput = sorted.length / (double) options.durationSeconds;
+            System.out.printf("%-36s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), sorted.length, log.errors,
+                    throughput, millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 0.999),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("request", entry.getKey());
+            row.put("count", sorted.length);
+            row.put("errors", log.errors);
+            row.put("throughput", throughput);
+            row.put("p50Millis", millis(sorted, 0.50));
+            row.put("p90Millis", millis(sorted, 0.90));
+            row.put("p99Millis", millis(sorted, 0.99));
+            row.put("p999Millis", millis(sorted, 0.999));
+            row.put("maxMillis", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+            rows.add(row);
+        }
+
+        if (options.reportFile != null) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("label", options.label);
+            report.put("baseUrl", options.baseUrl);
+            report.put("concurrency", options.concurrency);
+            report.put("coordinators", coordinators());
+            report.put("durationSeconds", options.durationSeconds);
+            report.put("results", rows);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(options.reportFile), report);
+            System.out.println("\nRapport JSON : " + options.reportFile);
+        }
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Operation(String name, int weight, Request request) {
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        HttpResponse<Void> send(Worker worker) throws IOException, InterruptedException;
+    }
+
+    /**
+     * Un client simulé : tire une requête du mélange de son rôle, enregistre sa latence après la chauffe
+     */
+    private class Worker implements Runnable {
+        private final List<Operation> mix;
+        private final int totalWeight;
+        private final String token;
+        private final Random random;
+        private final long warmupEnd;
+        private final long end;
+        private final Map<String, LatencyLog> latencies = new HashMap<>();
+        private long changesCursor;
+
+        Worker(List<Operation> mix, String token, Random random, long warmupEnd, long end) {
+            this.mix = mix;
+            this.totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+            this.token = token;
+            this.random = random;
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                Operation operation = next();
+                boolean failed;
+                try {
+                    failed = operation.request().send(this).statusCode() >= 400;
+                } catch (IOException e) {
+                    failed = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (now >= warmupEnd) {
+                    latencies.computeIfAbsent(operation.name(), n -> new LatencyLog()).add(System.nanoTime() - now, failed);
+                }
+            }
+        }
+
+        private Operation next() {
+            int draw = random.nextInt(totalWeight);
+            for (Operation operation : mix) {
+                draw -= operation.weight();
+                if (draw < 0) {
+                    return operation;
+                }
+            }
+            return mix.get(mix.size() - 1);
+        }
+
+        String pick(String[] values) {
+            return encode(values[random.nextInt(values.length)]);
+        }
+
+        String pickFamily() {
+            return familyIds.get(random.nextInt(familyIds.size()));
+        }
+
+        HttpResponse<Void> get(String path) throws IOException, InterruptedException {
+            return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        /**
+         * Envoi hors-ligne de 1 à 3 visites (identifiants client neufs : toujours des créations)
+         */
+        HttpResponse<Void> syncVisits() throws IOException, InterruptedException {
+            List<Map<String, Object>> visits = new ArrayList<>();
+            int count = 1 + random.nextInt(3);
+            for (int i = 0; i < count; i++) {
+                Map<String, Object> visit = new LinkedHashMap<>();
+                visit.put("clientId", new UUID(random.nextLong(), random.nextLong()).toString());
+                visit.put("familyId", pickFamily());
+                visit.put("visitDate", LocalDate.now().toString());
+                visit.put("visitType", "REGULAR");
+                visit.put("observations", "Visite de charge");
+                visit.put("nextVisitDate", LocalDate.now().plusDays(30).toString());
+                visit.put("identifiedNeeds", List.of("Alimentation"));
+                if (!aidTypeIds.isEmpty()) {
+                    visit.put("aidDistributions", List.of(Map.of(
+                            "aidTypeId", aidTypeIds.get(random.nextInt(aidTypeIds.size())),
+                            "quantity", 1 + random.nextInt(3))));
+                }
+                visits.add(visit);
+            }
+            byte[] body = mapper.writeValueAsBytes(Map.of("visits", visits));
+            return client.send(request("/api/sync/visits")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+
+        /**
+         * Synchronisation incrémentale : le curseur avance comme chez un client réel
+         */
+        HttpResponse<Void> pullChanges() throws IOException, InterruptedException {
+            HttpResponse<String> response = client.send(request("/api/sync/changes?limit=500&since=" + changesCursor).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                changesCursor = mapper.readTree(response.body()).get("cursor").asLong();
+            }
+            return new DiscardedResponse(response);
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(options.baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", "application/json");
+        }
+    }
+
+    /**
+     * Latences (ns) d'une requête, tableau extensible sans boxing
+     */
+    private static class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long nanos, boolean failed) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        void addAll(LatencyLog other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i], false);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * Réponse dont le corps a déjà été lu (seul le statut est exploité)
+     */
+    private record DiscardedResponse(HttpResponse<String> delegate) implements HttpResponse<Void> {
+        @Override public int statusCode() { return delegate.statusCode(); }
+        @Override public HttpRequest request() { return delegate.request(); }
+        @Override public Optional<HttpResponse<Void>> previousResponse() { return Optional.empty(); }
+        @Override public java.net.http.HttpHeaders headers() { return delegate.headers(); }
+        @Override public Void body() { return null; }
+        @Override public Optional<javax.net.ssl.SSLSession> sslSession() { return delegate.sslSession(); }
+        @Override public URI uri() { return delegate.uri(); }
+        @Override public HttpClient.Version version() { return delegate.version(); }
+    }
+
+    /**
+     * Options --nom=valeur
+     */
+    static class Options {
+        String baseUrl = "http://localhost:8080";
+        int concurrency = 50;
+        int durationSeconds = 60;
+        int warmupSeconds = 10;
+        double coordinatorShare = 0.1;
+        int volunteers = 20;
+        int coordinators = 5;
+        int maxFamilies = 5000;
+        String password = "omnia-seed";
+        long seed = 42;
+        String reportFile;
+        String label;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (!arg.startsWith("--") || separator < 0) {
+                    throw new IllegalArgumentException("Option attendue sous la forme --nom=valeur : " + arg);
+                }
+                String value = arg.substring(separator + 1);
+                switch (arg.substring(2, separator)) {
+                    case "base-url" -> options.baseUrl = value;
+                    case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "coordinator-share" -> options.coordinatorShare = Double.parseDouble(value);
+                    case "volunteers" -> options.volunteers = Integer.parseInt(value);
+                    case "coordinators" -> options.coordinators = Integer.parseInt(value);
+                    case "max-families" -> options.maxFamilies = Integer.parseInt(value);
+                    case "password" -> options.password = value;
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "report" -> options.reportFile = value;
+                    case "label" -> options.label = value;
+                    default -> throw new IllegalArgumentException("Option inconnue : " + arg);
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.omnia.omnia.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.omnia.omnia.Entities.AidCategory;
+import com.omnia.omnia.Entities.PriorityLevel;
+import com.omnia.omnia.dto.AidTypeRef;
+import com.omnia.omnia.dto.FamilyDetail;
+import com.omnia.omnia.dto.VisitDetail;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson des graphes renvoyés par l'API (VisitDetail avec distributions et besoins,
+ * FamilyDetail avec types d'aide fréquents) dans les trois formats négociables.
+ * Les tailles de charge utile sont mesurées par WireFormatBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    private static final String[] NAMES = {"Mohamed Ben Salah", "Fatma Trabelsi", "Youssef Gharbi", "Amira Jlassi"};
+    private static final AidCategory[] CATEGORIES = AidCategory.values();
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private VisitDetail[] visits;
+    private FamilyDetail[] families;
+    private byte[] visitBytes;
+    private byte[] familyBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> WireFormatBenchmark.mapper(new CBORFactory());
+            case "smile" -> WireFormatBenchmark.mapper(new SmileFactory());
+            default -> WireFormatBenchmark.mapper(null);
+        };
+        visits = WireFormatBenchmark.buildVisits(size, 3, 4).toArray(new VisitDetail[0]);
+        families = buildFamilies(size).toArray(new FamilyDetail[0]);
+        visitBytes = mapper.writeValueAsBytes(visits);
+        familyBytes = mapper.writeValueAsBytes(families);
+    }
+
+    @Benchmark
+    public byte[] writeVisits() throws IOException {
+        return mapper.writeValueAsBytes(visits);
+    }
+
+    @Benchmark
+    public VisitDetail[] readVisits() throws IOException {
+        return mapper.readValue(visitBytes, VisitDetail[].class);
+    }
+
+    @Benchmark
+    public byte[] writeFamilies() throws IOException {
+        return mapper.writeValueAsBytes(families);
+    }
+
+    @Benchmark
+    public FamilyDetail[] readFamilies() throws IOException {
+        return mapper.readValue(familyBytes, FamilyDetail[].class);
+    }
+
+    private static List<FamilyDetail> buildFamilies(int count) {
+        Random random = new Random(42);
+        List<AidTypeRef> aidTypes = new ArrayList<>();
+        for (AidCategory category : CATEGORIES) {
+            aidTypes.add(AidTypeRef.builder()
+                    .id(UUID.randomUUID())
+                    .name("Aide " + category.name().toLowerCase())
+                    .category(category)
+                    .unit("kit")
+                    .icon(category.name().toLowerCase())
+                    .build());
+        }
+        LocalDate today = LocalDate.of(2026, 1, 15);
+
+        List<FamilyDetail> families = new ArrayList<>(count);
+        for (int f = 0; f < count; f++) {
+            LocalDate lastVisit = today.minusDays(random.nextInt(90));
+            families.add(FamilyDetail.builder()
+                    .id(UUID.randomUUID())
+                    .reference("FAM-" + (1000 + f))
+                    .headOfFamily(NAMES[f % NAMES.length])
+                    .phone("2" + (1000000 + random.nextInt(9000000)))
+                    .address(f + " rue de la République, Tunis")
+                    .latitude(36.8 + random.nextDouble() / 10)
+                    .longitude(10.1 + random.nextDouble() / 10)
+                    .familySize(1 + random.nextInt(8))
+                    .needsDescription("Aide alimentaire mensuelle et suivi scolaire des enfants.")
+                    .priorityLevel(PriorityLevel.values()[random.nextInt(PriorityLevel.values().length)])
+                    .notes("Famille suivie depuis 2024.")
+                    .frequentAidTypes(aidTypes.subList(0, 1 + random.nextInt(3)))
+                    .lastVisitDate(lastVisit)
+                    .nextVisitDue(lastVisit.plusDays(30))
+                    .createdAt(LocalDateTime.of(2024, 3, 1, 9, 0))
+                    .updatedAt(lastVisit.atTime(11, 30))
+                    .version(random.nextInt(4))
+                    .build());
+        }
+        return families;
+    }
+}
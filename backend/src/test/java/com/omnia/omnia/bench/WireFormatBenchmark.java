@@ -0,0 +1,155 @@
+package com.omnia.omnia.bench;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.omnia.omnia.Entities.VisitType;
+import com.omnia.omnia.dto.AidDistributionView;
+import com.omnia.omnia.dto.VisitDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compare JSON, CBOR et Smile sur un lot de visites réaliste (taille des
+ * charges utiles et débit de sérialisation / désérialisation).
+ *
+ * Lancement : mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.omnia.omnia.bench.WireFormatBenchmark [-Dexec.args="500 3 4"]
+ */
+public class WireFormatBenchmark {
+
+    private static final String[] NEEDS = {"Alimentation", "Hygiène", "Scolarité", "Santé", "Logement", "Vêtements"};
+    private static final String[] AID_NAMES = {"Couffin alimentaire", "Kit d'hygiène", "Fournitures scolaires", "Lait infantile"};
+    private static final String[] UNITS = {"colis", "kit", "boîte", "kg"};
+
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    public static void main(String[] args) throws IOException {
+        int visits = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int distributions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int needs = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        List<VisitDetail> payload = buildVisits(visits, distributions, needs);
+        System.out.printf("Lot : %d visites, %d distributions et %d besoins par visite%n%n", visits, distributions, needs);
+        System.out.printf("%-6s %10s %10s %14s %14s%n", "format", "octets", "gzip", "écriture/s", "lecture/s");
+
+        run("json", mapper(null), payload);
+        run("cbor", mapper(new CBORFactory()), payload);
+        run("smile", mapper(new SmileFactory()), payload);
+    }
+
+    /**
+     * Même configuration que les convertisseurs HTTP (dates ISO, UUID binaires en CBOR / Smile)
+     */
+    static ObjectMapper mapper(JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+
+    private static void run(String name, ObjectMapper mapper, List<VisitDetail> payload) throws IOException {
+        VisitDetail[] typed = payload.toArray(new VisitDetail[0]);
+        byte[] bytes = mapper.writeValueAsBytes(typed);
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += mapper.writeValueAsBytes(typed).length;
+            sink += mapper.readValue(bytes, VisitDetail[].class).length;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += mapper.writeValueAsBytes(typed).length;
+        }
+        double writesPerSecond = MEASURED_ROUNDS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += mapper.readValue(bytes, VisitDetail[].class).length;
+        }
+        double readsPerSecond = MEASURED_ROUNDS / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("%-6s %10d %10d %14.1f %14.1f%s%n", name, bytes.length, gzipSize(bytes),
+                writesPerSecond, readsPerSecond, sink == 0 ? " (?)" : "");
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    static List<VisitDetail> buildVisits(int count, int distributions, int needs) {
+        Random random = new Random(42);
+        UUID[] aidTypeIds = new UUID[AID_NAMES.length];
+        for (int i = 0; i < aidTypeIds.length; i++) {
+            aidTypeIds[i] = UUID.randomUUID();
+        }
+        UUID volunteerId = UUID.randomUUID();
+        LocalDate today = LocalDate.of(2026, 1, 15);
+
+        List<VisitDetail> visits = new ArrayList<>(count);
+        for (int v = 0; v < count; v++) {
+            LocalDate visitDate = today.minusDays(random.nextInt(365));
+
+            List<AidDistributionView> aid = new ArrayList<>(distributions);
+            for (int d = 0; d < distributions; d++) {
+                int type = random.nextInt(AID_NAMES.length);
+                aid.add(AidDistributionView.builder()
+                        .id(UUID.randomUUID())
+                        .aidTypeId(aidTypeIds[type])
+                        .aidTypeName(AID_NAMES[type])
+                        .description("Distribution " + AID_NAMES[type].toLowerCase())
+                        .quantity(1 + random.nextInt(5))
+                        .unit(UNITS[type])
+                        .expirationDate(visitDate.plusMonths(6))
+                        .distributedAt(visitDate.atTime(10, random.nextInt(60)))
+                        .build());
+            }
+
+            List<String> identified = new ArrayList<>(needs);
+            for (int n = 0; n < needs; n++) {
+                identified.add(NEEDS[(v + n) % NEEDS.length]);
+            }
+
+            visits.add(VisitDetail.builder()
+                    .id(UUID.randomUUID())
+                    .visitDate(visitDate)
+                    .visitType(VisitType.values()[random.nextInt(VisitType.values().length)])
+                    .observations("Famille rencontrée à domicile, situation stable, suivi à prévoir.")
+                    .locationLat(36.8 + random.nextDouble() / 10)
+                    .locationLng(10.1 + random.nextDouble() / 10)
+                    .nextVisitDate(visitDate.plusDays(30))
+                    .synced(true)
+                    .recordedAt(LocalDateTime.of(visitDate, LocalTime.NOON))
+                    .familyId(UUID.randomUUID())
+                    .familyReference("FAM-" + (1000 + v))
+                    .headOfFamily("Chef de famille " + v)
+                    .volunteerId(volunteerId)
+                    .volunteerName("Bénévole Omnia")
+                    .aidDistributions(aid)
+                    .identifiedNeeds(identified)
+                    .version(random.nextInt(4))
+                    .build());
+        }
+        return visits;
+    }
+}